@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Compare threads plateforme et threads virtuels sur /rules/ et /rule-events/.
+#
+# Prérequis : hey (https://github.com/rakyll/hey), une base Mongo peuplée, un jeton d'accès valide
+# (valeur du cookie accessToken après /auth/login, seul support lu par JwtAuthenticationFilter).
+#
+# Usage :
+#   1. Démarrer l'API avec VIRTUAL_THREADS_ENABLED=false, puis :
+#        TOKEN=... USER_ID=... ./bench/threads-benchmark.sh platform
+#   2. Redémarrer avec VIRTUAL_THREADS_ENABLED=true (et MONGO_POOL_MAX_SIZE ajusté), puis :
+#        TOKEN=... USER_ID=... ./bench/threads-benchmark.sh virtual
+#
+# Chaque palier de concurrence affiche p50, p99 et le débit (RPS). Le débit maximal soutenu
+# est celui du dernier palier sans erreurs (réponses non-200).
+#
+# Le tableau est aussi écrit dans ${RESULTS_DIR}/<mode>-<date>.tsv, avec les réglages du pool passés
+# en variables d'environnement : toute modification de MONGO_POOL_* par défaut se commite avec ces résultats.
+
+set -euo pipefail
+
+MODE="${1:-unknown}"
+BASE_URL="${BASE_URL:-http://localhost:8080/api}"
+DURATION="${DURATION:-30s}"
+CONCURRENCY_LEVELS="${CONCURRENCY_LEVELS:-50 200 500 1000 2000}"
+: "${TOKEN:?TOKEN requis}"
+: "${USER_ID:?USER_ID requis}"
+RESULTS_DIR="${RESULTS_DIR:-bench/results}"
+
+mkdir -p "${RESULTS_DIR}"
+results="${RESULTS_DIR}/${MODE}-$(date +%Y%m%d-%H%M%S).tsv"
+{
+    echo "# mode=${MODE} pool_max_size=${MONGO_POOL_MAX_SIZE:-defaut} pool_max_wait=${MONGO_POOL_MAX_WAIT:-defaut} duration=${DURATION}"
+    printf 'mode\tendpoint\tconc\tp50_ms\tp99_ms\trps\terrors\n'
+} > "${results}"
+
+endpoints=(
+    "/rules/?userId=${USER_ID}&size=20"
+    "/rule-events/?userId=${USER_ID}&size=20"
+)
+
+printf '%-10s %-45s %6s %10s %10s %10s %8s\n' mode endpoint conc p50_ms p99_ms rps errors
+for endpoint in "${endpoints[@]}"; do
+    for concurrency in ${CONCURRENCY_LEVELS}; do
+        output=$(hey -z "${DURATION}" -c "${concurrency}" \
+            -H "Cookie: accessToken=${TOKEN}" "${BASE_URL}${endpoint}")
+
+        p50=$(awk '/ 50% in / {print $3 * 1000}' <<< "${output}")
+        p99=$(awk '/ 99% in / {print $3 * 1000}' <<< "${output}")
+        rps=$(awk '/Requests\/sec:/ {print $2}' <<< "${output}")
+        errors=$(awk '/^  \[[0-9]+\]/ && $1 != "[200]" {sum += $2} END {print sum + 0}' <<< "${output}")
+
+        printf '%-10s %-45s %6s %10s %10s %10s %8s\n' \
+            "${MODE}" "${endpoint%%\?*}" "${concurrency}" "${p50}" "${p99}" "${rps}" "${errors}"
+        printf '%s\t%s\t%s\t%s\t%s\t%s\t%s\n' \
+            "${MODE}" "${endpoint%%\?*}" "${concurrency}" "${p50}" "${p99}" "${rps}" "${errors}" >> "${results}"
+    done
+done
+
+echo "Résultats écrits dans ${results}"
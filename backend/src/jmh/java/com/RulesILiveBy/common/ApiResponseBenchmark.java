@@ -0,0 +1,95 @@
+package com.RulesILiveBy.common;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.jackson.autoconfigure.JacksonAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.RulesILiveBy.dto.rules.ListRulesResponse;
+import com.RulesILiveBy.dto.rules.RuleResponse;
+import com.RulesILiveBy.types.RuleStatusEnum;
+
+import tools.jackson.databind.ObjectMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ApiResponseBenchmark {
+    @Param({ "10", "100", "1000" })
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private ObjectMapper objectMapper;
+    private ListRulesResponse page;
+    private ApiResponse<ListRulesResponse> response;
+
+    @Setup
+    public void setup() {
+        // Mapper configuré comme dans l'application (auto-configuration et application.properties), sans Mongo ni web
+        context = new SpringApplicationBuilder(JacksonAutoConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run();
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        List<RuleResponse> rules = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < pageSize; i++) {
+            RuleResponse rule = new RuleResponse();
+            rule.setId(String.format("65f1c0ffee0000000000%04x", i));
+            rule.setTitle("Règle " + i);
+            rule.setDescription("Description de la règle " + i);
+            rule.setStatus(RuleStatusEnum.ACTIVE);
+            rule.setCreatedAt(now.minusDays(i));
+            rule.setRespectedCount(i * 3L);
+            rule.setBrokenCount(i);
+            rule.setLastEventAt(now);
+            rule.setVersion(1L);
+            rules.add(rule);
+        }
+
+        page = new ListRulesResponse();
+        page.setRules(rules);
+        page.setPage(1);
+        page.setSize(pageSize);
+        page.setOffset(0);
+        page.setTotalElements(pageSize * 10);
+
+        response = ApiResponse.success(page);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ApiResponse<ListRulesResponse> construct() {
+        return ApiResponse.success(page);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,73 @@
+package com.RulesILiveBy.dao;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.RulesILiveBy.dto.RuleEvent.RuleEventDto;
+import com.RulesILiveBy.dto.rules.RuleResponse;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.types.EventTypeEnum;
+import com.RulesILiveBy.types.RuleStatusEnum;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    private Rule rule;
+    private RuleEvent ruleEvent;
+    private RuleResponse ruleResponse;
+
+    @Setup
+    public void setup() {
+        rule = new Rule();
+        rule.setId("65f1c0ffee0000000000a001");
+        rule.setUserId("65f1c0ffee0000000000beef");
+        rule.setTitle("Ne pas répondre aux mails après 20h");
+        rule.setDescription("Le soir appartient à la famille.");
+        rule.setStatus(RuleStatusEnum.ACTIVE);
+        rule.setCreatedAt(LocalDateTime.now().minusDays(30));
+        rule.setUpdatedAt(LocalDateTime.now());
+        rule.setRespectedCount(42);
+        rule.setBrokenCount(7);
+        rule.setLastEventAt(LocalDateTime.now());
+        rule.setVersion(3L);
+
+        ruleEvent = new RuleEvent();
+        ruleEvent.setId("65f1c0ffee0000000000e001");
+        ruleEvent.setUserId(rule.getUserId());
+        ruleEvent.setRuleId(rule.getId());
+        ruleEvent.setType(EventTypeEnum.BROKEN);
+        ruleEvent.setContext("Urgence client");
+        ruleEvent.setEmotion("culpabilité");
+        ruleEvent.setNote("Une seule réponse, courte.");
+        ruleEvent.setOccurredAt(LocalDateTime.now());
+        ruleEvent.setVersion(0L);
+
+        ruleResponse = RuleDao.mapToRuleResponse(rule);
+    }
+
+    @Benchmark
+    public RuleResponse mapToRuleResponse() {
+        return RuleDao.mapToRuleResponse(rule);
+    }
+
+    @Benchmark
+    public RuleEventDto mapToRuleEventDto() {
+        return RuleEventDao.mapToRuleEventDto(ruleEvent, ruleResponse);
+    }
+}
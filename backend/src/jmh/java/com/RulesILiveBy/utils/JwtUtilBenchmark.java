@@ -0,0 +1,61 @@
+package com.RulesILiveBy.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKey;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.cdimascio.dotenv.Dotenv;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+// Nécessite un .env avec SECRET_KEY dans le répertoire courant, comme l'application
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+    private JwtUtil jwtUtil;
+    private JwtParser parser;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwtUtil = new JwtUtil();
+        SecretKey key = Keys.hmacShaKeyFor(Dotenv.load().get("SECRET_KEY").getBytes());
+        parser = Jwts.parser().verifyWith(key).build();
+        token = jwtUtil.generateJwtToken("65f1c0ffee0000000000beef");
+        jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return jwtUtil.generateJwtToken("65f1c0ffee0000000000beef");
+    }
+
+    // Chemin d'un token jamais vu : vérification de la signature HMAC et lecture des claims
+    @Benchmark
+    public Claims parseSignedClaims() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    // Chemin d'un token déjà vérifié : hash SHA-256 puis lecture du cache
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return jwtUtil.verify(token);
+    }
+}
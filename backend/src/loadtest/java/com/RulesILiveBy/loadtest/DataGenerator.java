@@ -0,0 +1,166 @@
+package com.RulesILiveBy.loadtest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.RulesILiveBy.dao.RuleEventDailyStatsDao;
+import com.RulesILiveBy.entity.RefreshToken;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.entity.RuleEventDailyStats;
+import com.RulesILiveBy.entity.User;
+import com.RulesILiveBy.types.EventTypeEnum;
+import com.RulesILiveBy.types.RuleStatusEnum;
+
+// Peuple la base avec des utilisateurs, règles et événements répartis de façon asymétrique
+public class DataGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+
+    public static final String EMAIL_PREFIX = "loadtest-user-";
+    public static final String PASSWORD = "loadtest-password";
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+    private static final String[] EMOTIONS = { "calme", "fierté", "culpabilité", "frustration", "soulagement" };
+
+    private final MongoTemplate mongoTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final RuleEventDailyStatsDao ruleEventDailyStatsDao;
+
+    public DataGenerator(MongoTemplate mongoTemplate, PasswordEncoder passwordEncoder) {
+        this.mongoTemplate = mongoTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.ruleEventDailyStatsDao = new RuleEventDailyStatsDao(mongoTemplate);
+    }
+
+    public SeededData seed(LoadTestConfig config) {
+        Random random = new Random(config.getSeed());
+        removePreviousRun();
+
+        SeededData data = new SeededData();
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < config.getUsers(); i++) {
+            User user = new User();
+            user.setId(new ObjectId().toHexString());
+            user.setEmail(EMAIL_PREFIX + i + "@example.com");
+            user.setUsername(EMAIL_PREFIX + i);
+            user.setPassword(encodedPassword);
+            user.setActive(true);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            user.setVersion(0L);
+            users.add(user);
+            data.addUser(user.getId(), user.getEmail());
+        }
+        insertInBatches(users, User.class);
+
+        int[] rulesPerUser = SkewedDistribution.allocate(
+                users.size(), (long) config.getUsers() * config.getRulesPerUser(), config.getSkew(), random);
+
+        List<Rule> rules = new ArrayList<>();
+        for (int u = 0; u < users.size(); u++) {
+            for (int r = 0; r < rulesPerUser[u]; r++) {
+                Rule rule = new Rule();
+                rule.setId(new ObjectId().toHexString());
+                rule.setUserId(users.get(u).getId());
+                rule.setTitle("Règle " + r + " de " + users.get(u).getUsername());
+                rule.setDescription("Règle générée pour les tests de charge");
+                rule.setStatus(random.nextInt(10) == 0 ? RuleStatusEnum.ARCHIVED : RuleStatusEnum.ACTIVE);
+                rule.setCreatedAt(now.minusDays(365 + random.nextInt(365)));
+                rule.setUpdatedAt(rule.getCreatedAt());
+                rule.setVersion(0L);
+                rules.add(rule);
+                data.addRule(rule.getUserId(), rule.getId());
+            }
+        }
+
+        int[] eventsPerRule = SkewedDistribution.allocate(
+                rules.size(), (long) rules.size() * config.getEventsPerRule(), config.getSkew(), random);
+
+        List<RuleEvent> events = new ArrayList<>();
+        long eventCount = 0;
+        for (int r = 0; r < rules.size(); r++) {
+            Rule rule = rules.get(r);
+            double brokenRatio = random.nextDouble();
+
+            for (int e = 0; e < eventsPerRule[r]; e++) {
+                RuleEvent event = new RuleEvent();
+                event.setId(new ObjectId().toHexString());
+                event.setUserId(rule.getUserId());
+                event.setRuleId(rule.getId());
+                event.setType(random.nextDouble() < brokenRatio ? EventTypeEnum.BROKEN : EventTypeEnum.RESPECTED);
+                event.setContext("Contexte " + e);
+                event.setEmotion(EMOTIONS[random.nextInt(EMOTIONS.length)]);
+                event.setNote(random.nextInt(4) == 0 ? "Note générée" : null);
+                event.setOccurredAt(now.minusMinutes(random.nextInt(365 * 24 * 60)));
+                event.setVersion(0L);
+                events.add(event);
+                data.addRuleEvent(rule.getUserId(), event.getId());
+
+                if (event.getType() == EventTypeEnum.BROKEN) {
+                    rule.setBrokenCount(rule.getBrokenCount() + 1);
+                } else {
+                    rule.setRespectedCount(rule.getRespectedCount() + 1);
+                }
+                if (rule.getLastEventAt() == null || event.getOccurredAt().isAfter(rule.getLastEventAt())) {
+                    rule.setLastEventAt(event.getOccurredAt());
+                }
+
+                // Les événements sont écrits au fil de l'eau pour ne pas garder tout le jeu de données en mémoire
+                if (events.size() >= INSERT_BATCH_SIZE) {
+                    eventCount += events.size();
+                    insertInBatches(events, RuleEvent.class);
+                    events.clear();
+                }
+            }
+        }
+        eventCount += events.size();
+        insertInBatches(events, RuleEvent.class);
+        insertInBatches(rules, Rule.class);
+
+        int buckets = ruleEventDailyStatsDao.rebuildUsers(data.getUserIds());
+
+        logger.info("Jeu de données généré : {} utilisateurs, {} règles, {} événements, {} agrégats journaliers",
+                users.size(), rules.size(), eventCount, buckets);
+        return data;
+    }
+
+    // Supprime uniquement les données d'une exécution précédente, identifiées par le préfixe des emails
+    private void removePreviousRun() {
+        Query previousUsers = new Query(Criteria.where("email").regex("^" + EMAIL_PREFIX));
+        previousUsers.fields().include("id");
+        List<String> userIds = mongoTemplate.find(previousUsers, User.class).stream()
+                .map(User::getId)
+                .toList();
+
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        Query byUser = new Query(Criteria.where("userId").in(userIds));
+        mongoTemplate.remove(byUser, RuleEvent.class);
+        mongoTemplate.remove(byUser, Rule.class);
+        mongoTemplate.remove(byUser, RuleEventDailyStats.class);
+        mongoTemplate.remove(byUser, RefreshToken.class);
+        mongoTemplate.remove(new Query(Criteria.where("id").in(userIds)), User.class);
+        logger.info("Données d'une exécution précédente supprimées : {} utilisateurs", userIds.size());
+    }
+
+    private <T> void insertInBatches(List<T> documents, Class<T> entityClass) {
+        for (int i = 0; i < documents.size(); i += INSERT_BATCH_SIZE) {
+            mongoTemplate.insert(documents.subList(i, Math.min(i + INSERT_BATCH_SIZE, documents.size())), entityClass);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.RulesILiveBy.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Latences d'un endpoint, en nanosecondes, mesurées depuis l'instant d'envoi prévu
+public class LatencyRecorder {
+    private final String endpoint;
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    public LatencyRecorder(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public synchronized void record(long latencyNanos, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (error) {
+            errors++;
+        }
+    }
+
+    public synchronized Map<String, Object> summary() {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoint", endpoint);
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("errorRate", count == 0 ? 0.0 : (double) errors / count);
+        summary.put("p50Ms", percentileMs(sorted, 0.50));
+        summary.put("p95Ms", percentileMs(sorted, 0.95));
+        summary.put("p99Ms", percentileMs(sorted, 0.99));
+        summary.put("maxMs", count == 0 ? 0.0 : sorted[count - 1] / 1_000_000.0);
+        return summary;
+    }
+
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
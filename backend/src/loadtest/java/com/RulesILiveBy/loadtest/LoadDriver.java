@@ -0,0 +1,344 @@
+package com.RulesILiveBy.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tools.jackson.databind.ObjectMapper;
+
+// Tir en modèle ouvert : les requêtes partent à cadence fixe, qu'importe le temps de réponse du serveur
+public class LoadDriver {
+    private static final Logger logger = LoggerFactory.getLogger(LoadDriver.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String ACCESS_COOKIE = "accessToken";
+    private static final String REFRESH_COOKIE = "refreshToken";
+    static final String BATCH_SCENARIO = "rule-events.batch";
+    static final String SEQUENTIAL_SCENARIO = "rule-events.create-xN";
+
+    private final LoadTestConfig config;
+    private final SeededData data;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private final Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+    private final List<Session> sessions = new ArrayList<>();
+    private final Queue<String> pendingLogouts = new ConcurrentLinkedQueue<>();
+    private final AtomicLong registrations = new AtomicLong();
+    private int totalWeight;
+
+    public LoadDriver(LoadTestConfig config, SeededData data, String baseUrl, ObjectMapper objectMapper) {
+        this.config = config;
+        this.data = data;
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        registerScenarios();
+    }
+
+    public Map<String, LatencyRecorder> run() throws Exception {
+        openSessions();
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, config.getRate());
+        long start = System.nanoTime();
+        long measureFrom = start + config.getWarmup().toNanos();
+        long end = measureFrom + config.getDuration().toNanos();
+        Semaphore inFlight = new Semaphore(config.getMaxInFlight());
+        AtomicLong dropped = new AtomicLong();
+
+        logger.info("Tir : {} req/s pendant {} s (+{} s de chauffe)",
+                config.getRate(), config.getDuration().toSeconds(), config.getWarmup().toSeconds());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                // Au-delà de max-in-flight, la requête est comptée comme perdue plutôt que d'accumuler sans fin
+                if (!inFlight.tryAcquire()) {
+                    dropped.incrementAndGet();
+                    continue;
+                }
+
+                long scheduledAt = scheduled;
+                boolean measured = scheduled >= measureFrom;
+                Scenario scenario = pickScenario();
+                executor.submit(() -> {
+                    try {
+                        execute(scenario, scheduledAt, measured);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        if (dropped.get() > 0) {
+            logger.warn("{} requêtes non envoyées : max-in-flight ({}) atteint", dropped.get(), config.getMaxInFlight());
+        }
+        return recorders;
+    }
+
+    private void execute(Scenario scenario, long scheduledAt, boolean measured) {
+        Session session = sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+        boolean error;
+        try {
+            HttpResponse<String> response = scenario.action().send(session);
+            if (response == null) {
+                // Rien à envoyer pour ce scénario (ex. aucun refresh token en attente de logout)
+                return;
+            }
+            error = response.statusCode() >= 400;
+        } catch (Exception e) {
+            error = true;
+        }
+
+        if (measured) {
+            recorders.get(scenario.name()).record(System.nanoTime() - scheduledAt, error);
+        }
+    }
+
+    private void openSessions() throws Exception {
+        for (SeededData.SeededUser user : data.getUsers()) {
+            HttpResponse<String> response = login(user.getEmail());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Connexion impossible pour " + user.getEmail() + " : " + response.body());
+            }
+            Session session = new Session(user.getId());
+            session.accessToken = readData(response);
+            session.refreshToken = readRefreshCookie(response);
+            sessions.add(session);
+        }
+        logger.info("{} sessions ouvertes", sessions.size());
+    }
+
+    private void registerScenarios() {
+        scenario("auth.register", 1, session -> {
+            String email = "loadtest-registered-" + System.nanoTime() + "-" + registrations.incrementAndGet()
+                    + "@example.com";
+            HttpResponse<String> response = post("/auth/register", null, Map.of(
+                    "email", email,
+                    "username", email,
+                    "password", DataGenerator.PASSWORD));
+            queueLogout(response);
+            return response;
+        });
+        scenario("auth.login", 2, session -> {
+            HttpResponse<String> response = login(data.getUsers().get(
+                    ThreadLocalRandom.current().nextInt(data.getUsers().size())).getEmail());
+            queueLogout(response);
+            return response;
+        });
+        scenario("auth.refresh", 2, session -> {
+            synchronized (session) {
+                HttpResponse<String> response = send(HttpRequest.newBuilder(uri("/auth/refresh"))
+                        .header("Cookie", REFRESH_COOKIE + "=" + session.refreshToken)
+                        .POST(HttpRequest.BodyPublishers.noBody()));
+                if (response.statusCode() == 200) {
+                    session.accessToken = readData(response);
+                    String rotated = readRefreshCookie(response);
+                    if (rotated != null) {
+                        session.refreshToken = rotated;
+                    }
+                }
+                return response;
+            }
+        });
+        scenario("auth.logout", 2, session -> {
+            String refreshToken = pendingLogouts.poll();
+            if (refreshToken == null) {
+                return null;
+            }
+            return send(HttpRequest.newBuilder(uri("/auth/logout"))
+                    .header("Cookie", REFRESH_COOKIE + "=" + refreshToken)
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+        });
+
+        scenario("rules.list", 10, session -> get("/rules/?userId=" + session.userId
+                + "&size=20&page=" + (1 + ThreadLocalRandom.current().nextInt(3)), session));
+        scenario("rules.get", 8, session -> get("/rules/" + randomRuleId(session), session));
+        scenario("rules.most-broken", 2, session -> get("/rules/most-broken/" + session.userId, session));
+        scenario("rules.most-respected", 2, session -> get("/rules/most-respected/" + session.userId, session));
+        scenario("rules.ranking", 2, session -> get("/rules/ranking/" + session.userId, session));
+        scenario("rules.stats-respected", 2, session -> get("/rules/stats/respected/" + session.userId, session));
+        scenario("rules.stats-rollup", 3, session -> get("/rules/stats/rollup/" + session.userId
+                + "?granularity=" + (ThreadLocalRandom.current().nextBoolean() ? "WEEK" : "MONTH"), session));
+        scenario("rules.create", 2, session -> post("/rules/", session, Map.of(
+                "userId", session.userId,
+                "title", "Règle créée pendant le tir",
+                "description", "Test de charge")));
+        scenario("rules.update", 2, session -> put("/rules/" + randomRuleId(session), session,
+                Map.of("description", "Modifiée pendant le tir " + System.nanoTime())));
+        scenario("rules.archive", 1, session -> put("/rules/" + randomRuleId(session) + "/archive", session, Map.of()));
+
+        scenario("rule-events.list", 10, session -> get("/rule-events/?userId=" + session.userId
+                + "&size=20&page=" + (1 + ThreadLocalRandom.current().nextInt(3)), session));
+        scenario("rule-events.get", 6, session -> get("/rule-events/" + randomRuleEventId(session), session));
+        scenario("rule-events.create", 4, session -> post("/rule-events/", session, newRuleEvent(session)));
+        // Mêmes volumes des deux côtés : batch-size événements en un POST /batch ou en autant de POST unitaires
+        scenario(BATCH_SCENARIO, 1, session -> {
+            List<Map<String, Object>> batch = new ArrayList<>();
+            for (int i = 0; i < config.getBatchSize(); i++) {
+                batch.add(newRuleEvent(session));
+            }
+            return post("/rule-events/batch", session, batch);
+        });
+        scenario(SEQUENTIAL_SCENARIO, 1, session -> {
+            HttpResponse<String> response = null;
+            for (int i = 0; i < config.getBatchSize(); i++) {
+                response = post("/rule-events/", session, newRuleEvent(session));
+                if (response.statusCode() >= 400) {
+                    break;
+                }
+            }
+            return response;
+        });
+        scenario("rule-events.update", 2, session -> put("/rule-events/" + randomRuleEventId(session), session,
+                Map.of("note", "Modifiée pendant le tir " + System.nanoTime())));
+
+        scenario("users.me", 4, session -> get("/users/me", session));
+        scenario("users.update", 1, session -> put("/users/" + session.userId, session,
+                Map.of("username", "loadtest-" + System.nanoTime())));
+    }
+
+    private void scenario(String name, int weight, Action action) {
+        scenarios.add(new Scenario(name, weight, action));
+        recorders.put(name, new LatencyRecorder(name));
+        totalWeight += weight;
+    }
+
+    private Scenario pickScenario() {
+        int target = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            target -= scenario.weight();
+            if (target < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private Map<String, Object> newRuleEvent(Session session) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("userId", session.userId);
+        event.put("ruleId", randomRuleId(session));
+        event.put("type", ThreadLocalRandom.current().nextBoolean() ? "RESPECTED" : "BROKEN");
+        event.put("context", "Tir de charge");
+        event.put("emotion", "calme");
+        return event;
+    }
+
+    private String randomRuleId(Session session) {
+        List<String> ids = data.getRuleIdsByUser().get(session.userId);
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private String randomRuleEventId(Session session) {
+        List<String> ids = data.getRuleEventIdsByUser().get(session.userId);
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private void queueLogout(HttpResponse<String> response) {
+        String refreshToken = readRefreshCookie(response);
+        if (refreshToken != null) {
+            pendingLogouts.add(refreshToken);
+        }
+    }
+
+    private HttpResponse<String> login(String email) throws Exception {
+        return post("/auth/login", null, Map.of("email", email, "password", DataGenerator.PASSWORD));
+    }
+
+    private HttpResponse<String> get(String path, Session session) throws Exception {
+        return send(authorize(HttpRequest.newBuilder(uri(path)), session).GET());
+    }
+
+    private HttpResponse<String> post(String path, Session session, Object body) throws Exception {
+        return send(authorize(HttpRequest.newBuilder(uri(path)), session)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+    }
+
+    private HttpResponse<String> put(String path, Session session, Object body) throws Exception {
+        return send(authorize(HttpRequest.newBuilder(uri(path)), session)
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body))));
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return httpClient.send(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // JwtAuthenticationFilter ne lit que le cookie accessToken, pas l'en-tête Authorization
+    private HttpRequest.Builder authorize(HttpRequest.Builder request, Session session) {
+        if (session != null && session.accessToken != null) {
+            request.header("Cookie", ACCESS_COOKIE + "=" + session.accessToken);
+        }
+        return request;
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    // Le jeton d'accès est dans data.jwtToken pour login/register, directement dans data pour refresh
+    private String readData(HttpResponse<String> response) {
+        Object payload = objectMapper.readValue(response.body(), Map.class).get("data");
+        if (payload instanceof Map<?, ?> map) {
+            return (String) map.get("jwtToken");
+        }
+        return (String) payload;
+    }
+
+    private static String readRefreshCookie(HttpResponse<String> response) {
+        for (String header : response.headers().allValues("Set-Cookie")) {
+            if (header.startsWith(REFRESH_COOKIE + "=")) {
+                int end = header.indexOf(';');
+                return header.substring(REFRESH_COOKIE.length() + 1, end > 0 ? end : header.length());
+            }
+        }
+        return null;
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        HttpResponse<String> send(Session session) throws Exception;
+    }
+
+    private record Scenario(String name, int weight, Action action) {
+    }
+
+    private static class Session {
+        private final String userId;
+        private volatile String accessToken;
+        private volatile String refreshToken;
+
+        private Session(String userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.RulesILiveBy.loadtest;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.RulesILiveBy.BackendApplication;
+import com.RulesILiveBy.config.IndexBuilder;
+import com.RulesILiveBy.config.PasswordConfig;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Test de charge de bout en bout : peuple la base, tire sur tous les endpoints à cadence fixe
+ * et rapporte p50/p95/p99 et taux d'erreur par endpoint.
+ *
+ * Sans --mongo-uri, un mongod embarqué est démarré. Son binaire est téléchargé au premier lancement
+ * puis mis en cache dans ~/.embedmongo : sur une machine hors ligne sans ce cache, passer
+ * --mongo-uri=mongodb://... vers un mongod local (seul chemin entièrement hors ligne).
+ * Sans --base-url, l'API est démarrée dans le même processus sur un port libre.
+ * Le code de sortie vaut 1 si --max-error-rate ou --max-p99-ms sont dépassés.
+ */
+public class LoadTest {
+    private static final Logger logger = LoggerFactory.getLogger(LoadTest.class);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = new LoadTestConfig(args);
+
+        TransitionWalker.ReachedState<RunningMongodProcess> mongod = null;
+        ConfigurableApplicationContext context = null;
+        MongoClient mongoClient = null;
+        boolean passed;
+
+        try {
+            String mongoUri = config.getMongoUri();
+            if (mongoUri == null) {
+                mongod = startEmbeddedMongod();
+                ServerAddress address = mongod.current().getServerAddress();
+                mongoUri = "mongodb://" + address.getHost() + ":" + address.getPort();
+            }
+
+            String baseUrl = config.getBaseUrl();
+            MongoTemplate mongoTemplate;
+            PasswordEncoder passwordEncoder;
+            ObjectMapper objectMapper;
+
+            if (baseUrl == null) {
+                context = new SpringApplicationBuilder(BackendApplication.class).run(
+                        "--server.port=0",
+                        "--spring.mongodb.uri=" + mongoUri,
+                        "--spring.mongodb.database=" + config.getDatabase(),
+                        "--stats.rollup.rebuild-on-startup=false",
+                        "--spring.main.banner-mode=off");
+                baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+                        + context.getEnvironment().getProperty("server.servlet.context-path", "");
+                mongoTemplate = context.getBean(MongoTemplate.class);
+                passwordEncoder = context.getBean(PasswordEncoder.class);
+                objectMapper = context.getBean(ObjectMapper.class);
+            } else {
+                mongoClient = MongoClients.create(mongoUri);
+                mongoTemplate = new MongoTemplate(mongoClient, config.getDatabase());
+                passwordEncoder = new PasswordConfig().passwordEncoder();
+                objectMapper = JsonMapper.builder().build();
+            }
+
+            // Les index sont construits en arrière-plan au démarrage : on attend leur fin avant le tir
+            if (context != null) {
+                context.getBean(IndexBuilder.class).buildIndexes();
+            }
+            SeededData data = new DataGenerator(mongoTemplate, passwordEncoder).seed(config);
+            Map<String, LatencyRecorder> recorders = new LoadDriver(config, data, baseUrl, objectMapper).run();
+
+            passed = report(config, recorders, objectMapper);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (mongoClient != null) {
+                mongoClient.close();
+            }
+            if (mongod != null) {
+                mongod.close();
+            }
+        }
+
+        System.exit(passed ? 0 : 1);
+    }
+
+    // Échoue tout de suite avec la marche à suivre plutôt qu'après le délai de téléchargement du driver
+    private static TransitionWalker.ReachedState<RunningMongodProcess> startEmbeddedMongod() {
+        try {
+            return Mongod.instance().start(Version.Main.V6_0);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Impossible de démarrer le mongod embarqué (binaire absent du cache "
+                    + "~/.embedmongo et téléchargement impossible ?). Hors ligne, lancer un mongod local et "
+                    + "passer --mongo-uri=mongodb://localhost:27017", e);
+        }
+    }
+
+    private static boolean report(LoadTestConfig config, Map<String, LatencyRecorder> recorders,
+            ObjectMapper objectMapper) {
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        List<String> violations = new ArrayList<>();
+
+        System.out.printf("%-24s %9s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors%", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (LatencyRecorder recorder : recorders.values()) {
+            Map<String, Object> summary = recorder.summary();
+            endpoints.add(summary);
+
+            double errorRate = (double) summary.get("errorRate");
+            double p99 = (double) summary.get("p99Ms");
+            System.out.printf("%-24s %9d %8.2f %9.1f %9.1f %9.1f %9.1f%n",
+                    summary.get("endpoint"), summary.get("requests"), errorRate * 100,
+                    summary.get("p50Ms"), summary.get("p95Ms"), p99, summary.get("maxMs"));
+
+            if (errorRate > config.getMaxErrorRate()) {
+                violations.add(summary.get("endpoint") + " : taux d'erreur " + errorRate);
+            }
+            if (config.getMaxP99Ms() > 0 && p99 > config.getMaxP99Ms()) {
+                violations.add(summary.get("endpoint") + " : p99 " + p99 + " ms");
+            }
+        }
+
+        Map<String, Object> batchComparison = compareBatch(config, recorders);
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("users", config.getUsers());
+        settings.put("rulesPerUser", config.getRulesPerUser());
+        settings.put("eventsPerRule", config.getEventsPerRule());
+        settings.put("skew", config.getSkew());
+        settings.put("seed", config.getSeed());
+        settings.put("rate", config.getRate());
+        settings.put("batchSize", config.getBatchSize());
+        settings.put("durationSeconds", config.getDuration().toSeconds());
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", settings);
+        report.put("endpoints", endpoints);
+        report.put("batchComparison", batchComparison);
+        report.put("violations", violations);
+
+        File reportFile = new File(config.getReportPath());
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+        logger.info("Rapport écrit dans {}", reportFile.getAbsolutePath());
+
+        violations.forEach(violation -> logger.error("Seuil dépassé - {}", violation));
+        return violations.isEmpty();
+    }
+
+    // Ingestion de batch-size événements : un POST /rule-events/batch contre autant de POST /rule-events/
+    private static Map<String, Object> compareBatch(LoadTestConfig config, Map<String, LatencyRecorder> recorders) {
+        Map<String, Object> batch = recorders.get(LoadDriver.BATCH_SCENARIO).summary();
+        Map<String, Object> sequential = recorders.get(LoadDriver.SEQUENTIAL_SCENARIO).summary();
+        double batchP50 = (double) batch.get("p50Ms");
+        double sequentialP50 = (double) sequential.get("p50Ms");
+
+        Map<String, Object> comparison = new LinkedHashMap<>();
+        comparison.put("eventsPerRequest", config.getBatchSize());
+        comparison.put("batchP50Ms", batchP50);
+        comparison.put("sequentialP50Ms", sequentialP50);
+        comparison.put("batchEventsPerSecond", eventsPerSecond(config.getBatchSize(), batchP50));
+        comparison.put("sequentialEventsPerSecond", eventsPerSecond(config.getBatchSize(), sequentialP50));
+        comparison.put("speedup", batchP50 > 0 ? sequentialP50 / batchP50 : 0.0);
+
+        System.out.printf("%n%d événements : batch p50 %.1f ms, %d x create p50 %.1f ms (x%.1f)%n",
+                config.getBatchSize(), batchP50, config.getBatchSize(), sequentialP50, comparison.get("speedup"));
+        return comparison;
+    }
+
+    private static double eventsPerSecond(int events, double p50Ms) {
+        return p50Ms > 0 ? events * 1000 / p50Ms : 0.0;
+    }
+}
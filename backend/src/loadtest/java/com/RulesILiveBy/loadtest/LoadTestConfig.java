@@ -0,0 +1,59 @@
+package com.RulesILiveBy.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import lombok.Getter;
+
+// Options passées en ligne de commande sous la forme --cle=valeur
+@Getter
+public class LoadTestConfig {
+    private final int users;
+    private final int rulesPerUser;
+    private final int eventsPerRule;
+    private final double skew;
+    private final long seed;
+    private final int rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final int maxInFlight;
+    private final int batchSize;
+    private final String mongoUri;
+    private final String database;
+    private final String baseUrl;
+    private final String reportPath;
+    private final double maxErrorRate;
+    private final double maxP99Ms;
+
+    public LoadTestConfig(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Option invalide : " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+
+        this.users = Integer.parseInt(options.getOrDefault("users", "200"));
+        this.rulesPerUser = Integer.parseInt(options.getOrDefault("rules-per-user", "10"));
+        this.eventsPerRule = Integer.parseInt(options.getOrDefault("events-per-rule", "50"));
+        this.skew = Double.parseDouble(options.getOrDefault("skew", "1.1"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+        this.duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "60")));
+        this.warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+        this.batchSize = Integer.parseInt(options.getOrDefault("batch-size", "10"));
+        this.mongoUri = options.get("mongo-uri");
+        this.database = options.getOrDefault("database", "rules_loadtest");
+        this.baseUrl = options.get("base-url");
+        this.reportPath = options.getOrDefault("report", "target/loadtest-report.json");
+        this.maxErrorRate = Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"));
+        this.maxP99Ms = Double.parseDouble(options.getOrDefault("max-p99-ms", "0"));
+
+        if (baseUrl != null && mongoUri == null) {
+            throw new IllegalArgumentException("--base-url nécessite --mongo-uri pour peupler la base de l'API cible");
+        }
+    }
+}
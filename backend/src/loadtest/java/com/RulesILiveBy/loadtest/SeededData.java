@@ -0,0 +1,40 @@
+package com.RulesILiveBy.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Identifiants générés, utilisés pour construire des requêtes valides pendant le tir
+@Getter
+public class SeededData {
+    private final List<SeededUser> users = new ArrayList<>();
+    private final Map<String, List<String>> ruleIdsByUser = new HashMap<>();
+    private final Map<String, List<String>> ruleEventIdsByUser = new HashMap<>();
+
+    public void addUser(String id, String email) {
+        users.add(new SeededUser(id, email));
+    }
+
+    public void addRule(String userId, String ruleId) {
+        ruleIdsByUser.computeIfAbsent(userId, key -> new ArrayList<>()).add(ruleId);
+    }
+
+    public void addRuleEvent(String userId, String ruleEventId) {
+        ruleEventIdsByUser.computeIfAbsent(userId, key -> new ArrayList<>()).add(ruleEventId);
+    }
+
+    public List<String> getUserIds() {
+        return users.stream().map(SeededUser::getId).toList();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SeededUser {
+        private final String id;
+        private final String email;
+    }
+}
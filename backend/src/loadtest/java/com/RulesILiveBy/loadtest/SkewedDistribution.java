@@ -0,0 +1,46 @@
+package com.RulesILiveBy.loadtest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+// Répartit un total entre des éléments selon une loi de Zipf : quelques éléments concentrent l'essentiel du volume
+public final class SkewedDistribution {
+
+    private SkewedDistribution() {
+    }
+
+    public static int[] allocate(int items, long total, double skew, Random random) {
+        int[] counts = new int[items];
+        if (items == 0 || total == 0) {
+            return counts;
+        }
+
+        double[] weights = new double[items];
+        double sum = 0;
+        for (int rank = 0; rank < items; rank++) {
+            weights[rank] = 1.0 / Math.pow(rank + 1, skew);
+            sum += weights[rank];
+        }
+
+        // Les rangs sont mélangés pour que les éléments les plus chargés ne soient pas toujours les premiers créés
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            positions.add(i);
+        }
+        Collections.shuffle(positions, random);
+
+        long allocated = 0;
+        for (int rank = 0; rank < items; rank++) {
+            int count = Math.max(1, (int) Math.round(total * weights[rank] / sum));
+            counts[positions.get(rank)] = count;
+            allocated += count;
+        }
+
+        // Ajuste l'écart d'arrondi sur l'élément le plus chargé
+        int heaviest = positions.get(0);
+        counts[heaviest] = (int) Math.max(1, counts[heaviest] + (total - allocated));
+        return counts;
+    }
+}
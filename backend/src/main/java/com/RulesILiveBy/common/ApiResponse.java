@@ -6,6 +6,8 @@ import java.time.format.DateTimeFormatter;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
 public class ApiResponse<T> {
+    private static final DateTimeFormatter TIMESTAMP_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
     private boolean success;
     private String message;
     private T data;
@@ -27,9 +29,7 @@ public class ApiResponse<T> {
     }
 
     private static String getCurrentTimestamp() {
-        LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
-        return now.format(formatter);
+        return LocalDateTime.now().format(TIMESTAMP_FORMATTER);
     }
 
     public boolean isSuccess() {
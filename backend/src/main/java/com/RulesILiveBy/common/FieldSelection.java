@@ -0,0 +1,71 @@
+package com.RulesILiveBy.common;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.mongodb.core.query.Query;
+
+// Attributs demandés par le client (fields=title,status) ; sans paramètre, tous les attributs sont renvoyés
+public class FieldSelection {
+    private static final FieldSelection ALL = new FieldSelection(Collections.emptySet());
+
+    private final Set<String> fields;
+
+    private FieldSelection(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldSelection parse(String value, Collection<String> allowedFields) {
+        Set<String> fields = split(value);
+        for (String field : fields) {
+            if (!allowedFields.contains(field)) {
+                throw new RuntimeException("Champ inconnu : " + field + " (autorisés : "
+                        + String.join(", ", allowedFields) + ")");
+            }
+        }
+        return fields.isEmpty() ? ALL : new FieldSelection(Collections.unmodifiableSet(fields));
+    }
+
+    static Set<String> split(String value) {
+        Set<String> fields = new LinkedHashSet<>();
+        if (value == null || value.isBlank()) {
+            return fields;
+        }
+        for (String part : value.split(",")) {
+            String field = part.trim();
+            if (!field.isEmpty()) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    public boolean isAll() {
+        return fields.isEmpty();
+    }
+
+    public boolean includes(String field) {
+        return isAll() || fields.contains(field);
+    }
+
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    // Limite la projection Mongo aux champs demandés, plus ceux dont la requête a besoin (curseur, jointure)
+    public Query project(Query query, Map<String, String> documentFields, String... requiredFields) {
+        if (isAll()) {
+            return query;
+        }
+        for (String field : requiredFields) {
+            query.fields().include(field);
+        }
+        for (String field : fields) {
+            query.fields().include(documentFields.getOrDefault(field, field));
+        }
+        return query;
+    }
+}
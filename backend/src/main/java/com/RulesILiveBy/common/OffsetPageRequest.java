@@ -0,0 +1,97 @@
+package com.RulesILiveBy.common;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+public class OffsetPageRequest implements Pageable {
+    private final int page;
+    private final int size;
+    private final int offset;
+    private final Sort sort;
+
+    public OffsetPageRequest(int page, int size, int offset, Sort sort) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page ne peut pas être négatif");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("size doit être supérieur à 0");
+        }
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset ne peut pas être négatif");
+        }
+        this.page = page;
+        this.size = size;
+        this.offset = offset;
+        this.sort = sort != null ? sort : Sort.unsorted();
+    }
+
+    // Les pages côté client commencent à 1, l'offset s'ajoute au décalage de la page
+    public static OffsetPageRequest of(Integer page, Integer size, Integer offset, Sort sort, int maxSize) {
+        int requestedPage = page != null ? page : 0;
+        int requestedOffset = offset != null ? offset : 0;
+
+        if (requestedPage > 0) {
+            requestedPage = requestedPage - 1;
+        }
+
+        return new OffsetPageRequest(requestedPage, sizeOf(size, maxSize), requestedOffset, sort);
+    }
+
+    // Taille par défaut 10, ramenée à maxSize au-delà
+    public static int sizeOf(Integer size, int maxSize) {
+        int requestedSize = size != null ? size : 10;
+        if (requestedSize < 1) {
+            throw new IllegalArgumentException("size doit être supérieur à 0");
+        }
+        return Math.min(requestedSize, maxSize);
+    }
+
+    @Override
+    public int getPageNumber() {
+        return page;
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return (long) page * size + offset;
+    }
+
+    public int getExtraOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(page + 1, size, offset, sort);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(page - 1, size, offset, sort) : first();
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, size, offset, sort);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest(pageNumber, size, offset, sort);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return page > 0;
+    }
+}
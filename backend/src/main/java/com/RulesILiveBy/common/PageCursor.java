@@ -0,0 +1,74 @@
+package com.RulesILiveBy.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+// Position (date de tri, id) ; une date nulle (anciens documents) est encodée par une valeur vide
+public class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime sortValue;
+    private final String id;
+
+    public PageCursor(LocalDateTime sortValue, String id) {
+        this.sortValue = sortValue;
+        this.id = id;
+    }
+
+    public LocalDateTime getSortValue() {
+        return sortValue;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String encode() {
+        String raw = (sortValue != null ? sortValue.toString() : "") + SEPARATOR + id;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex < 0 || separatorIndex == raw.length() - 1) {
+                throw new RuntimeException("Curseur invalide");
+            }
+
+            LocalDateTime sortValue = separatorIndex > 0 ? LocalDateTime.parse(raw.substring(0, separatorIndex)) : null;
+            String id = raw.substring(separatorIndex + 1);
+            return new PageCursor(sortValue, id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Curseur invalide", e);
+        }
+    }
+
+    // Documents qui suivent le curseur dans l'ordre (sortField, id). Mongo classe les dates nulles
+    // avant toutes les autres et $gt/$lt ne les comparent pas : elles sont traitées à part
+    public Criteria after(String sortField, boolean ascending) {
+        if (sortValue == null) {
+            Criteria sameDate = Criteria.where(sortField).is(null).and("id");
+            Criteria nullsThenId = ascending ? sameDate.gt(id) : sameDate.lt(id);
+            return ascending
+                    ? new Criteria().orOperator(nullsThenId, Criteria.where(sortField).ne(null))
+                    : nullsThenId;
+        }
+
+        if (ascending) {
+            return new Criteria().orOperator(
+                    Criteria.where(sortField).gt(sortValue),
+                    Criteria.where(sortField).is(sortValue).and("id").gt(id));
+        }
+        return new Criteria().orOperator(
+                Criteria.where(sortField).lt(sortValue),
+                Criteria.where(sortField).is(sortValue).and("id").lt(id),
+                Criteria.where(sortField).is(null));
+    }
+}
@@ -0,0 +1,26 @@
+package com.RulesILiveBy.common;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Nombre de documents matérialisés par lecture : app.rows.materialized{operation}
+@Component
+public class RowMetrics {
+    private final MeterRegistry meterRegistry;
+
+    public RowMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void record(String operation, int rows) {
+        DistributionSummary.builder("app.rows.materialized")
+                .description("Documents lus en base par opération")
+                .baseUnit("rows")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
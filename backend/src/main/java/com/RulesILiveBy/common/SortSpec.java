@@ -0,0 +1,52 @@
+package com.RulesILiveBy.common;
+
+import java.util.Collection;
+
+import org.springframework.data.domain.Sort;
+
+// Tri demandé par le client (sort=champ ou sort=champ,asc|desc), limité aux champs servis par un index
+public class SortSpec {
+    private final String field;
+    private final Sort.Direction direction;
+
+    private SortSpec(String field, Sort.Direction direction) {
+        this.field = field;
+        this.direction = direction;
+    }
+
+    public static SortSpec parse(String value, String defaultField, Collection<String> allowedFields) {
+        if (value == null || value.isBlank()) {
+            return new SortSpec(defaultField, Sort.Direction.ASC);
+        }
+
+        String[] parts = value.split(",");
+        String field = parts[0].trim();
+        if (!allowedFields.contains(field)) {
+            throw new RuntimeException("Tri non autorisé : " + field + " (autorisés : "
+                    + String.join(", ", allowedFields) + ")");
+        }
+
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length > 1) {
+            direction = Sort.Direction.fromOptionalString(parts[1].trim())
+                    .orElseThrow(() -> new RuntimeException("Sens de tri invalide : " + parts[1].trim()));
+        }
+        if (parts.length > 2) {
+            throw new RuntimeException("Tri invalide : " + value);
+        }
+
+        return new SortSpec(field, direction);
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public boolean isAscending() {
+        return direction.isAscending();
+    }
+}
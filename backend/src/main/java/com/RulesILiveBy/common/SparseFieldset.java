@@ -0,0 +1,72 @@
+package com.RulesILiveBy.common;
+
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.RulesILiveBy.dto.RuleEvent.RuleEventDto;
+import com.RulesILiveBy.dto.rules.RuleResponse;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.ser.std.SimpleBeanPropertyFilter;
+import tools.jackson.databind.ser.std.SimpleFilterProvider;
+
+// Écrit une réponse de liste limitée aux attributs demandés par fields=, déjà validés par le DAO.
+// Le filtre s'applique pendant la sérialisation : pas d'arbre JSON intermédiaire.
+@Component
+public class SparseFieldset {
+    public static final String RULES = "ruleFields";
+    public static final String RULE_EVENTS = "ruleEventFields";
+
+    private final ObjectMapper filteringMapper;
+
+    // Les filtres sont posés par mixins sur une copie du mapper : les autres réponses n'en dépendent pas
+    public SparseFieldset(ObjectMapper objectMapper) {
+        this.filteringMapper = objectMapper.rebuild()
+                .addMixIn(RuleResponse.class, RuleFields.class)
+                .addMixIn(RuleEventDto.class, RuleEventFields.class)
+                .build();
+    }
+
+    public ResponseEntity<Object> ok(Object body, String itemFilter, String fields) {
+        Set<String> selected = FieldSelection.split(fields);
+        if (selected.isEmpty()) {
+            return ResponseEntity.ok(body);
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(filteringMapper.writer(filters(itemFilter, selected)).writeValueAsBytes(body));
+    }
+
+    // Variante pour les flux réactifs : Spring écrit chaque élément séparément, le filtre est donc appliqué
+    // élément par élément et produit un petit arbre JSON que le mapper par défaut sérialise tel quel
+    public Function<Object, Object> perItem(String itemFilter, String fields) {
+        Set<String> selected = FieldSelection.split(fields);
+        if (selected.isEmpty()) {
+            return Function.identity();
+        }
+
+        ObjectWriter writer = filteringMapper.writer(filters(itemFilter, selected));
+        return item -> filteringMapper.readTree(writer.writeValueAsBytes(item));
+    }
+
+    private static SimpleFilterProvider filters(String itemFilter, Set<String> selected) {
+        return new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                .addFilter(itemFilter, SimpleBeanPropertyFilter.filterOutAllExcept(selected));
+    }
+
+    @JsonFilter(RULES)
+    private abstract static class RuleFields {
+    }
+
+    @JsonFilter(RULE_EVENTS)
+    private abstract static class RuleEventFields {
+    }
+}
@@ -0,0 +1,33 @@
+package com.RulesILiveBy.config;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Délai propre à une requête asynchrone (StreamingResponseBody) : le contrôleur le dépose dans l'attribut
+// ASYNC_TIMEOUT, il remplace le délai par défaut de Spring MVC juste avant le démarrage du traitement.
+// Une durée nulle ou négative supprime la limite (sémantique de AsyncContext.setTimeout).
+@Configuration
+public class AsyncTimeoutConfig implements WebMvcConfigurer {
+    public static final String ASYNC_TIMEOUT = AsyncTimeoutConfig.class.getName() + ".timeout";
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                Object timeout = request.getAttribute(ASYNC_TIMEOUT, RequestAttributes.SCOPE_REQUEST);
+                if (timeout instanceof Duration duration && request instanceof AsyncWebRequest asyncRequest) {
+                    asyncRequest.setTimeout(duration.toMillis());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.RulesILiveBy.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Component;
+
+// Construit les index des collections volumineuses après le démarrage, sur un thread dédié.
+// Depuis MongoDB 4.2, background() est ignoré et une construction bloque jusqu'à la fin :
+// dans un change unit Mongock, elle retarderait le démarrage de l'application.
+// createIndex est idempotent : un index déjà présent avec la même définition n'est pas reconstruit.
+@Component
+public class IndexBuilder {
+    private static final Logger logger = LoggerFactory.getLogger(IndexBuilder.class);
+    private static final int MAX_REPORTED_DUPLICATES = 20;
+
+    private final MongoTemplate mongoTemplate;
+
+    public IndexBuilder(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        Thread.ofPlatform()
+                .name("index-builder")
+                .daemon()
+                .start(() -> {
+                    try {
+                        buildIndexes();
+                    } catch (RuntimeException e) {
+                        logger.error("Construction des index en échec", e);
+                    }
+                });
+    }
+
+    public void buildIndexes() {
+        createIndex("rules", new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("rules_userId_createdAt"));
+        createIndex("rules", new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("status", Sort.Direction.ASC)
+                .on("createdAt", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("rules_userId_status_createdAt"));
+        createIndex("rules", new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("brokenCount", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.ASC)
+                .named("rules_userId_brokenCount"));
+        createIndex("rules", new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("respectedCount", Sort.Direction.DESC)
+                .on("_id", Sort.Direction.ASC)
+                .named("rules_userId_respectedCount"));
+
+        createIndex("ruleEvents", new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("occurredAt", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("ruleEvents_userId_occurredAt"));
+        createIndex("ruleEvents", new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("type", Sort.Direction.ASC)
+                .on("occurredAt", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("ruleEvents_userId_type_occurredAt"));
+        createIndex("ruleEvents", new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("ruleId", Sort.Direction.ASC)
+                .on("occurredAt", Sort.Direction.ASC)
+                .named("ruleEvents_userId_ruleId_occurredAt"));
+        createIndex("ruleEvents", new Index()
+                .on("ruleId", Sort.Direction.ASC)
+                .on("type", Sort.Direction.ASC)
+                .named("ruleEvents_ruleId_type"));
+
+        // Un index unique échoue sur des doublons existants : ils sont signalés et l'index n'est pas créé
+        List<String> duplicateEmails = findDuplicateEmails();
+        if (duplicateEmails.isEmpty()) {
+            createIndex("users", new Index()
+                    .on("email", Sort.Direction.ASC)
+                    .named("users_email")
+                    .unique());
+        } else {
+            logger.error("Index unique users_email non créé : emails en double (au plus {} affichés) : {}",
+                    MAX_REPORTED_DUPLICATES, duplicateEmails);
+        }
+    }
+
+    public List<String> findDuplicateEmails() {
+        List<Document> pipeline = List.of(
+                new Document("$group", new Document("_id", "$email").append("count", new Document("$sum", 1))),
+                new Document("$match", new Document("count", new Document("$gt", 1))),
+                new Document("$limit", MAX_REPORTED_DUPLICATES));
+
+        return mongoTemplate.getCollection("users")
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .into(new ArrayList<>())
+                .stream()
+                .map(duplicate -> duplicate.get("_id") + " (" + duplicate.get("count") + ")")
+                .collect(Collectors.toList());
+    }
+
+    private void createIndex(String collection, Index index) {
+        long start = System.nanoTime();
+        String name = mongoTemplate.indexOps(collection).createIndex(index);
+        logger.info("Index {}.{} prêt en {} ms", collection, name, (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,65 @@
+package com.RulesILiveBy.config;
+
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.reactivestreams.Publisher;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// Chronomètre chaque méthode publique des services et des DAO : app.layer.duration{layer, operation, outcome, exception}
+@Aspect
+@Component
+public class LayerTimingAspect {
+    private final MeterRegistry meterRegistry;
+
+    public LayerTimingAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.RulesILiveBy.service..*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("service", joinPoint);
+    }
+
+    @Around("execution(public * com.RulesILiveBy.dao..*(..))")
+    public Object timeDao(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time("dao", joinPoint);
+    }
+
+    private Object time(String layer, ProceedingJoinPoint joinPoint) throws Throwable {
+        // Un Flux/Mono est seulement assemblé ici : sa durée ne dirait rien du temps passé en base
+        if (Publisher.class.isAssignableFrom(((MethodSignature) joinPoint.getSignature()).getReturnType())) {
+            return joinPoint.proceed();
+        }
+
+        String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                + "." + joinPoint.getSignature().getName();
+        long start = System.nanoTime();
+        String outcome = "success";
+        String exception = "none";
+
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = "error";
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            Timer.builder("app.layer.duration")
+                    .description("Durée des appels aux services et DAO")
+                    .tag("layer", layer)
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
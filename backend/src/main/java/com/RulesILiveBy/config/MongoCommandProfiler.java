@@ -0,0 +1,413 @@
+package com.RulesILiveBy.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Écoute les commandes Mongo : histogramme de latence par collection et par commande,
+ * journalisation des commandes lentes avec la forme du filtre (valeurs masquées) et le code appelant,
+ * puis explain échantillonné en tâche de fond pour repérer les COLLSCAN et les tris en mémoire.
+ */
+@Component
+public class MongoCommandProfiler implements CommandListener {
+    private static final Logger logger = LoggerFactory.getLogger(MongoCommandProfiler.class);
+
+    private static final Set<String> EXPLAINABLE_COMMANDS = Set.of(
+            "find", "aggregate", "count", "distinct", "findAndModify", "update", "delete");
+    private static final String APP_PACKAGE = "com.RulesILiveBy.";
+    private static final String PROFILER_PACKAGE = "com.RulesILiveBy.config.";
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<MongoTemplate> mongoTemplate;
+    private final Duration slowThreshold;
+    private final double explainSampleRate;
+    private final Duration explainInterval;
+    private final int maxShapes;
+
+    private final Map<Integer, StartedCommand> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, SlowQueryShape> slowShapes = new ConcurrentHashMap<>();
+    private final AtomicLong droppedShapes = new AtomicLong();
+    private final ThreadPoolExecutor explainExecutor;
+
+    public MongoCommandProfiler(
+            MeterRegistry meterRegistry,
+            ObjectProvider<MongoTemplate> mongoTemplate,
+            @Value("${mongo.profiler.slow-threshold:100ms}") Duration slowThreshold,
+            @Value("${mongo.profiler.explain-sample-rate:0.2}") double explainSampleRate,
+            @Value("${mongo.profiler.explain-interval:10m}") Duration explainInterval,
+            @Value("${mongo.profiler.max-shapes:500}") int maxShapes) {
+        this.meterRegistry = meterRegistry;
+        this.mongoTemplate = mongoTemplate;
+        this.slowThreshold = slowThreshold;
+        this.explainSampleRate = explainSampleRate;
+        this.explainInterval = explainInterval;
+        this.maxShapes = maxShapes;
+
+        // Un seul explain à la fois, les suivants sont abandonnés si la file est pleine
+        this.explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "mongo-explain");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        String commandName = event.getCommandName();
+        if ("explain".equals(commandName)) {
+            return;
+        }
+
+        BsonDocument command = event.getCommand();
+        BsonValue target = command.get(commandName);
+        String collection = target != null && target.isString() ? target.asString().getValue() : "none";
+
+        // La commande n'est valide que pendant l'appel : la forme du filtre est relevée tout de suite,
+        // et la copie complète réservée à la fraction échantillonnée pour un explain éventuel
+        String shape = "";
+        BsonDocument copy = null;
+        if (EXPLAINABLE_COMMANDS.contains(commandName)) {
+            shape = shapeOf(filterOf(commandName, command));
+            if (ThreadLocalRandom.current().nextDouble() < explainSampleRate) {
+                copy = command.clone();
+            }
+        }
+        inFlight.put(event.getRequestId(), new StartedCommand(collection, commandName, shape, copy));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        complete(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS), "success");
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        complete(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS), "error");
+    }
+
+    private void complete(int requestId, long elapsedNanos, String outcome) {
+        StartedCommand started = inFlight.remove(requestId);
+        if (started == null) {
+            return;
+        }
+
+        Timer.builder("mongo.command.duration")
+                .description("Durée des commandes Mongo")
+                .tag("collection", started.collection())
+                .tag("command", started.commandName())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+
+        if (elapsedNanos >= slowThreshold.toNanos()) {
+            recordSlowCommand(started, elapsedNanos);
+        }
+    }
+
+    private void recordSlowCommand(StartedCommand started, long elapsedNanos) {
+        String shape = started.shape();
+        String origin = findOrigin();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+
+        logger.warn("Commande Mongo lente ({} ms) : {}.{} {} depuis {}",
+                elapsedMs, started.collection(), started.commandName(), shape, origin);
+
+        String key = started.collection() + "." + started.commandName() + " " + shape;
+        SlowQueryShape slowShape = slowShapes.get(key);
+        if (slowShape == null) {
+            if (slowShapes.size() >= maxShapes) {
+                droppedShapes.incrementAndGet();
+                return;
+            }
+            slowShape = slowShapes.computeIfAbsent(key,
+                    k -> new SlowQueryShape(started.collection(), started.commandName(), shape));
+        }
+        slowShape.record(elapsedMs, origin);
+
+        if (started.command() != null && slowShape.claimExplain(explainInterval)) {
+            SlowQueryShape explained = slowShape;
+            explainExecutor.execute(() -> explain(explained, started.command()));
+        }
+    }
+
+    private void explain(SlowQueryShape shape, BsonDocument command) {
+        MongoTemplate template = mongoTemplate.getIfAvailable();
+        if (template == null) {
+            return;
+        }
+
+        try {
+            BsonDocument explainCommand = new BsonDocument("explain", withoutSessionFields(command))
+                    .append("verbosity", new BsonString("queryPlanner"));
+            Document result = template.getDb().runCommand(explainCommand);
+
+            Set<String> stages = winningPlanStages(result);
+            shape.explained(stages);
+
+            if (stages.contains("COLLSCAN")) {
+                logger.warn("COLLSCAN pour {}.{} {} depuis {}",
+                        shape.getCollection(), shape.getCommandName(), shape.getShape(), shape.getLastOrigin());
+            }
+        } catch (RuntimeException e) {
+            logger.debug("Explain impossible pour {}.{}", shape.getCollection(), shape.getCommandName(), e);
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        List<Map<String, Object>> shapes = new ArrayList<>();
+        slowShapes.values().stream()
+                .sorted(Comparator.comparingLong(SlowQueryShape::getTotalMs).reversed())
+                .forEach(shape -> shapes.add(shape.toMap()));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("slowThresholdMs", slowThreshold.toMillis());
+        snapshot.put("explainSampleRate", explainSampleRate);
+        snapshot.put("droppedShapes", droppedShapes.get());
+        snapshot.put("slowQueries", shapes);
+        return snapshot;
+    }
+
+    public void reset() {
+        slowShapes.clear();
+        droppedShapes.set(0);
+    }
+
+    public static BsonValue filterOf(String commandName, BsonDocument command) {
+        switch (commandName) {
+            case "find":
+                return command.get("filter");
+            case "aggregate":
+                return command.get("pipeline");
+            case "count":
+            case "distinct":
+            case "findAndModify":
+                return command.get("query");
+            case "update":
+                return firstStatementField(command, "updates", "q");
+            case "delete":
+                return firstStatementField(command, "deletes", "q");
+            default:
+                return null;
+        }
+    }
+
+    private static BsonValue firstStatementField(BsonDocument command, String statements, String field) {
+        BsonValue value = command.get(statements);
+        if (value == null || !value.isArray() || value.asArray().isEmpty()) {
+            return null;
+        }
+        BsonValue first = value.asArray().get(0);
+        return first.isDocument() ? first.asDocument().get(field) : null;
+    }
+
+    // Forme du filtre : les clés et opérateurs sont conservés, les valeurs remplacées par "?"
+    public static String shapeOf(BsonValue value) {
+        if (value == null) {
+            return "{}";
+        }
+        if (value.isDocument()) {
+            StringBuilder shape = new StringBuilder("{");
+            for (Map.Entry<String, BsonValue> entry : value.asDocument().entrySet()) {
+                if (shape.length() > 1) {
+                    shape.append(", ");
+                }
+                shape.append(entry.getKey()).append(": ").append(shapeOf(entry.getValue()));
+            }
+            return shape.append('}').toString();
+        }
+        if (value.isArray()) {
+            BsonArray array = value.asArray();
+            boolean nested = !array.isEmpty() && (array.get(0).isDocument() || array.get(0).isArray());
+            if (!nested) {
+                return "[?]";
+            }
+            StringBuilder shape = new StringBuilder("[");
+            for (BsonValue element : array) {
+                if (shape.length() > 1) {
+                    shape.append(", ");
+                }
+                shape.append(shapeOf(element));
+            }
+            return shape.append(']').toString();
+        }
+        return "?";
+    }
+
+    public static BsonDocument withoutSessionFields(BsonDocument command) {
+        BsonDocument cleaned = new BsonDocument();
+        for (Map.Entry<String, BsonValue> entry : command.entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith("$") && !"lsid".equals(key) && !"txnNumber".equals(key)
+                    && !"autocommit".equals(key) && !"startTransaction".equals(key)) {
+                cleaned.append(key, entry.getValue());
+            }
+        }
+        return cleaned;
+    }
+
+    // Étapes du plan retenu, quelle que soit la forme du résultat d'explain (find, aggregate, count...)
+    public static Set<String> winningPlanStages(Document explain) {
+        Set<String> stages = new LinkedHashSet<>();
+        collectWinning(explain, false, "stage", stages);
+        return stages;
+    }
+
+    // Index parcourus par le plan retenu (IXSCAN, COUNT_SCAN, DISTINCT_SCAN)
+    public static Set<String> winningPlanIndexes(Document explain) {
+        Set<String> indexes = new LinkedHashSet<>();
+        collectWinning(explain, false, "indexName", indexes);
+        return indexes;
+    }
+
+    private static void collectWinning(Object node, boolean inWinningPlan, String key, Set<String> values) {
+        if (node instanceof Map<?, ?> map) {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                boolean winning = inWinningPlan || "winningPlan".equals(entry.getKey());
+                if (winning && key.equals(entry.getKey()) && entry.getValue() instanceof String value) {
+                    values.add(value);
+                }
+                collectWinning(entry.getValue(), winning, key, values);
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object element : list) {
+                collectWinning(element, inWinningPlan, key, values);
+            }
+        }
+    }
+
+    // Le driver synchrone notifie dans le thread appelant : on remonte au DAO et à la méthode de repository
+    private static String findOrigin() {
+        return StackWalker.getInstance().walk(frames -> {
+            String repositoryMethod = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (className.contains("$Proxy")) {
+                    repositoryMethod = frame.getMethodName();
+                } else if (className.startsWith(APP_PACKAGE) && !className.startsWith(PROFILER_PACKAGE)
+                        && !className.contains("$$")) {
+                    String caller = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                    return repositoryMethod != null ? caller + " -> " + repositoryMethod : caller;
+                }
+            }
+            return "inconnu";
+        });
+    }
+
+    private record StartedCommand(String collection, String commandName, String shape, BsonDocument command) {
+    }
+
+    static class SlowQueryShape {
+        private final String collection;
+        private final String commandName;
+        private final String shape;
+        private long count;
+        private long totalMs;
+        private long maxMs;
+        private String lastOrigin;
+        private Instant lastSeenAt;
+        private Instant explainedAt;
+        private Set<String> planStages = Set.of();
+
+        SlowQueryShape(String collection, String commandName, String shape) {
+            this.collection = collection;
+            this.commandName = commandName;
+            this.shape = shape;
+        }
+
+        synchronized void record(long elapsedMs, String origin) {
+            count++;
+            totalMs += elapsedMs;
+            maxMs = Math.max(maxMs, elapsedMs);
+            lastOrigin = origin;
+            lastSeenAt = Instant.now();
+        }
+
+        // Réserve l'explain pour cette forme : au plus un par intervalle
+        synchronized boolean claimExplain(Duration interval) {
+            if (explainedAt != null && explainedAt.plus(interval).isAfter(Instant.now())) {
+                return false;
+            }
+            explainedAt = Instant.now();
+            return true;
+        }
+
+        synchronized void explained(Set<String> stages) {
+            planStages = stages;
+            explainedAt = Instant.now();
+        }
+
+        String getCollection() {
+            return collection;
+        }
+
+        String getCommandName() {
+            return commandName;
+        }
+
+        String getShape() {
+            return shape;
+        }
+
+        synchronized long getTotalMs() {
+            return totalMs;
+        }
+
+        synchronized String getLastOrigin() {
+            return lastOrigin;
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("collection", collection);
+            map.put("command", commandName);
+            map.put("shape", shape);
+            map.put("count", count);
+            map.put("totalMs", totalMs);
+            map.put("maxMs", maxMs);
+            map.put("lastOrigin", lastOrigin);
+            map.put("lastSeenAt", lastSeenAt != null ? lastSeenAt.toString() : null);
+            map.put("planStages", planStages);
+            map.put("collscan", planStages.contains("COLLSCAN"));
+            map.put("inMemorySort", planStages.contains("SORT"));
+            map.put("explainedAt", explainedAt != null ? explainedAt.toString() : null);
+            return map;
+        }
+    }
+}
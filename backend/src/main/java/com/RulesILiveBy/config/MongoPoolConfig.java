@@ -0,0 +1,32 @@
+package com.RulesILiveBy.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Avec les threads virtuels, Tomcat ne borne plus la concurrence : c'est le pool Mongo qui le fait.
+// Les valeurs par défaut sont celles du driver ; l'attente maximale d'une connexion (120 s côté driver)
+// n'est modifiée que si mongo.pool.max-wait est renseigné.
+@Configuration
+public class MongoPoolConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(
+            @Value("${mongo.pool.max-size:100}") int maxSize,
+            @Value("${mongo.pool.min-size:0}") int minSize,
+            @Value("${mongo.pool.max-connecting:2}") int maxConnecting,
+            @Value("${mongo.pool.max-wait:#{null}}") Duration maxWait) {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> {
+            pool.maxSize(maxSize)
+                    .minSize(minSize)
+                    .maxConnecting(maxConnecting);
+            if (maxWait != null) {
+                pool.maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.RulesILiveBy.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MongoProfilerConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoProfilerCustomizer(
+            MongoCommandProfiler profiler,
+            @Value("${mongo.profiler.enabled:true}") boolean enabled) {
+        return builder -> {
+            if (enabled) {
+                builder.addCommandListener(profiler);
+            }
+        };
+    }
+}
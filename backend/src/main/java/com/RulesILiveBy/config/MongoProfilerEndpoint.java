@@ -0,0 +1,29 @@
+package com.RulesILiveBy.config;
+
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+// GET /actuator/mongoprofiler : formes de requêtes lentes et plans échantillonnés ; DELETE pour remettre à zéro
+@Component
+@Endpoint(id = "mongoprofiler")
+public class MongoProfilerEndpoint {
+    private final MongoCommandProfiler profiler;
+
+    public MongoProfilerEndpoint(MongoCommandProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        return profiler.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        profiler.reset();
+    }
+}
@@ -0,0 +1,113 @@
+package com.RulesILiveBy.controller;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.RulesILiveBy.common.ApiResponse;
+import com.RulesILiveBy.config.AsyncTimeoutConfig;
+import com.RulesILiveBy.service.ExportService;
+import com.RulesILiveBy.types.ExportFormatEnum;
+
+import jakarta.servlet.http.HttpServletRequest;
+import tools.jackson.databind.ObjectMapper;
+
+@RestController
+@RequestMapping("/users/{userId}/export")
+public class ExportController {
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
+    private final Duration streamTimeout;
+
+    public ExportController(ExportService exportService, ObjectMapper objectMapper,
+            @Value("${export.stream-timeout:0}") Duration streamTimeout) {
+        this.exportService = exportService;
+        this.objectMapper = objectMapper;
+        this.streamTimeout = streamTimeout;
+    }
+
+    @GetMapping("/rules")
+    public ResponseEntity<StreamingResponseBody> exportRules(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            Authentication authentication,
+            HttpServletRequest request) {
+        ResponseEntity<StreamingResponseBody> rejection = checkAccess(userId, authentication);
+        if (rejection != null) {
+            return rejection;
+        }
+
+        ExportFormatEnum exportFormat = parseFormat(format);
+        if (exportFormat == null) {
+            return error(HttpStatus.BAD_REQUEST, "Format d'export non supporté : " + format);
+        }
+
+        return stream(request, "rules", exportFormat,
+                output -> exportService.exportRules(userId, exportFormat, output));
+    }
+
+    @GetMapping("/rule-events")
+    public ResponseEntity<StreamingResponseBody> exportRuleEvents(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            Authentication authentication,
+            HttpServletRequest request) {
+        ResponseEntity<StreamingResponseBody> rejection = checkAccess(userId, authentication);
+        if (rejection != null) {
+            return rejection;
+        }
+
+        ExportFormatEnum exportFormat = parseFormat(format);
+        if (exportFormat == null) {
+            return error(HttpStatus.BAD_REQUEST, "Format d'export non supporté : " + format);
+        }
+
+        return stream(request, "rule-events", exportFormat,
+                output -> exportService.exportRuleEvents(userId, exportFormat, output));
+    }
+
+    private ResponseEntity<StreamingResponseBody> checkAccess(String userId, Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return error(HttpStatus.UNAUTHORIZED, "Not authenticated");
+        }
+        if (!userId.equals(authentication.getPrincipal())) {
+            return error(HttpStatus.FORBIDDEN, "You can only export your own data");
+        }
+        return null;
+    }
+
+    // Un export volumineux dépasse le délai asynchrone par défaut de Spring MVC : il a le sien (0 = sans limite)
+    private ResponseEntity<StreamingResponseBody> stream(HttpServletRequest request, String name,
+            ExportFormatEnum format, StreamingResponseBody body) {
+        request.setAttribute(AsyncTimeoutConfig.ASYNC_TIMEOUT, streamTimeout);
+        String extension = format == ExportFormatEnum.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(format == ExportFormatEnum.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + extension + "\"")
+                .body(body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(output -> objectMapper.writeValue(output, ApiResponse.error(message)));
+    }
+
+    private static ExportFormatEnum parseFormat(String format) {
+        try {
+            return ExportFormatEnum.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.RulesILiveBy.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.RulesILiveBy.common.ApiResponse;
+import com.RulesILiveBy.dto.export.ImportReportDto;
+import com.RulesILiveBy.service.ImportService;
+import com.RulesILiveBy.types.ExportFormatEnum;
+
+@RestController
+@RequestMapping("/users/{userId}/import")
+public class ImportController {
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    @PostMapping(consumes = "multipart/form-data")
+    public ResponseEntity<Object> importData(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestPart(name = "rules", required = false) MultipartFile rules,
+            @RequestPart(name = "ruleEvents", required = false) MultipartFile ruleEvents,
+            Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("Not authenticated"));
+        }
+        if (!userId.equals(authentication.getPrincipal())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ApiResponse.error("You can only import your own data"));
+        }
+
+        ExportFormatEnum importFormat;
+        try {
+            importFormat = ExportFormatEnum.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Format d'import non supporté : " + format));
+        }
+
+        if (rules == null && ruleEvents == null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Aucun fichier à importer"));
+        }
+
+        try (InputStream rulesInput = rules != null ? rules.getInputStream() : null;
+                InputStream ruleEventsInput = ruleEvents != null ? ruleEvents.getInputStream() : null) {
+            ImportReportDto response = importService.importData(userId, importFormat, rulesInput, ruleEventsInput);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("Lecture du fichier impossible"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
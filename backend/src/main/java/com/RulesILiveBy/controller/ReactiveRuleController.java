@@ -0,0 +1,47 @@
+package com.RulesILiveBy.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.RulesILiveBy.common.ApiResponse;
+import com.RulesILiveBy.common.SparseFieldset;
+import com.RulesILiveBy.dto.rules.ListRequestDto;
+import com.RulesILiveBy.service.ReactiveRuleService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Lecture non bloquante : application/json renvoie un tableau, application/x-ndjson diffuse au fil de l'eau
+@RestController
+@RequestMapping("/reactive/rules")
+public class ReactiveRuleController {
+    private final ReactiveRuleService reactiveRuleService;
+    private final SparseFieldset sparseFieldset;
+
+    public ReactiveRuleController(ReactiveRuleService reactiveRuleService, SparseFieldset sparseFieldset) {
+        this.reactiveRuleService = reactiveRuleService;
+        this.sparseFieldset = sparseFieldset;
+    }
+
+    @GetMapping(value = "/", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Object> list(@ModelAttribute ListRequestDto request) {
+        return reactiveRuleService.list(request)
+                .map(sparseFieldset.perItem(SparseFieldset.RULES, request.getFields()));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Object>> getOne(@PathVariable String id) {
+        return reactiveRuleService.getOne(id)
+                .map(response -> ResponseEntity.ok((Object) ApiResponse.success(response)))
+                .onErrorResume(RuntimeException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body((Object) ApiResponse.error(e.getMessage()))));
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<Object> handleError(RuntimeException e) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+}
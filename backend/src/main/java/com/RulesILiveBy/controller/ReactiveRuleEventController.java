@@ -0,0 +1,46 @@
+package com.RulesILiveBy.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.RulesILiveBy.common.ApiResponse;
+import com.RulesILiveBy.common.SparseFieldset;
+import com.RulesILiveBy.dto.RuleEvent.ListRuleEventRequest;
+import com.RulesILiveBy.service.ReactiveRuleEventService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/reactive/rule-events")
+public class ReactiveRuleEventController {
+    private final ReactiveRuleEventService reactiveRuleEventService;
+    private final SparseFieldset sparseFieldset;
+
+    public ReactiveRuleEventController(ReactiveRuleEventService reactiveRuleEventService, SparseFieldset sparseFieldset) {
+        this.reactiveRuleEventService = reactiveRuleEventService;
+        this.sparseFieldset = sparseFieldset;
+    }
+
+    @GetMapping(value = "/", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<Object> list(@ModelAttribute ListRuleEventRequest request) {
+        return reactiveRuleEventService.list(request)
+                .map(sparseFieldset.perItem(SparseFieldset.RULE_EVENTS, request.getFields()));
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Object>> getOne(@PathVariable String id) {
+        return reactiveRuleEventService.getOne(id)
+                .map(response -> ResponseEntity.ok((Object) ApiResponse.success(response)))
+                .onErrorResume(RuntimeException.class,
+                        e -> Mono.just(ResponseEntity.badRequest().body((Object) ApiResponse.error(e.getMessage()))));
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<Object> handleError(RuntimeException e) {
+        return ResponseEntity.badRequest()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error(e.getMessage()));
+    }
+}
@@ -1,30 +1,53 @@
 package com.RulesILiveBy.controller;
 
+import java.util.List;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.RulesILiveBy.common.ApiResponse;
+import com.RulesILiveBy.common.SparseFieldset;
+import com.RulesILiveBy.dto.rules.BatchGetRulesDto;
 import com.RulesILiveBy.dto.rules.CreateRuleRequestDto;
 import com.RulesILiveBy.dto.rules.EditRuleRequestDto;
 import com.RulesILiveBy.dto.rules.ListRequestDto;
 import com.RulesILiveBy.dto.rules.ListRulesResponse;
+import com.RulesILiveBy.dto.rules.RuleRankingDto;
 import com.RulesILiveBy.dto.rules.RuleResponse;
 import com.RulesILiveBy.dto.rules.StatsRespectedDto;
+import com.RulesILiveBy.dto.rules.StatsRespectedRequestDto;
+import com.RulesILiveBy.dto.rules.StatsRollupDto;
+import com.RulesILiveBy.dto.rules.StatsRollupRequestDto;
 import com.RulesILiveBy.service.RuleService;
 
 @RestController
 @RequestMapping("/rules")
 public class RuleController {
     private final RuleService ruleService;
+    private final SparseFieldset sparseFieldset;
 
-    public RuleController(RuleService ruleService) {
+    public RuleController(RuleService ruleService, SparseFieldset sparseFieldset) {
         this.ruleService = ruleService;
+        this.sparseFieldset = sparseFieldset;
     }
 
     @GetMapping("/")
     public ResponseEntity<Object> list(@ModelAttribute ListRequestDto request) {
         try {
             ListRulesResponse response = ruleService.list(request);
+            return sparseFieldset.ok(ApiResponse.success(response), SparseFieldset.RULES, request.getFields());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    // ids=a,b,c ; Spring privilégie le chemin littéral /batch sur /{id}
+    @GetMapping("/batch")
+    public ResponseEntity<Object> getBatch(@RequestParam List<String> ids) {
+        try {
+            BatchGetRulesDto response = ruleService.getBatch(ids);
             return ResponseEntity.ok(ApiResponse.success(response));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -61,10 +84,36 @@ public class RuleController {
         }
     }
 
+    @GetMapping("/ranking/{userId}")
+    public ResponseEntity<Object> ranking(@PathVariable String userId) {
+        try {
+            RuleRankingDto response = ruleService.ranking(userId);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/stats/respected/{userId}")
-    public ResponseEntity<Object> statsRespected(@PathVariable String userId) {
+    public ResponseEntity<Object> statsRespected(
+            @PathVariable String userId,
+            @ModelAttribute StatsRespectedRequestDto request) {
+        try {
+            request.setUserId(userId);
+            StatsRespectedDto response = ruleService.statsRespected(request);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/stats/rollup/{userId}")
+    public ResponseEntity<Object> statsRollup(
+            @PathVariable String userId,
+            @ModelAttribute StatsRollupRequestDto request) {
         try {
-            StatsRespectedDto response = ruleService.statsRespected(userId);
+            request.setUserId(userId);
+            StatsRollupDto response = ruleService.statsRollup(request);
             return ResponseEntity.ok(ApiResponse.success(response));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -86,6 +135,8 @@ public class RuleController {
         try {
             RuleResponse response = ruleService.update(id, request);
             return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
@@ -1,9 +1,16 @@
 package com.RulesILiveBy.controller;
 
+import java.util.List;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.RulesILiveBy.common.ApiResponse;
+import com.RulesILiveBy.common.SparseFieldset;
+import com.RulesILiveBy.dto.RuleEvent.BatchCreateRuleEventsDto;
+import com.RulesILiveBy.dto.RuleEvent.BatchGetRuleEventsDto;
 import com.RulesILiveBy.dto.RuleEvent.CreateRuleEventRequestDto;
 import com.RulesILiveBy.dto.RuleEvent.ListRuleEventRequest;
 import com.RulesILiveBy.dto.RuleEvent.ListRuleEventsDto;
@@ -15,15 +22,28 @@ import com.RulesILiveBy.service.RuleEventService;
 @RequestMapping("/rule-events")
 public class RuleEventController {
     private RuleEventService ruleEventService;
+    private SparseFieldset sparseFieldset;
 
-    public RuleEventController(RuleEventService ruleEventService) {
+    public RuleEventController(RuleEventService ruleEventService, SparseFieldset sparseFieldset) {
         this.ruleEventService = ruleEventService;
+        this.sparseFieldset = sparseFieldset;
     }
 
     @GetMapping("/")
     public ResponseEntity<Object> list(@ModelAttribute ListRuleEventRequest request) {
         try {
             ListRuleEventsDto response = ruleEventService.list(request);
+            return sparseFieldset.ok(ApiResponse.success(response), SparseFieldset.RULE_EVENTS, request.getFields());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    // ids=a,b,c ; Spring privilégie le chemin littéral /batch sur /{id}
+    @GetMapping("/batch")
+    public ResponseEntity<Object> getBatch(@RequestParam List<String> ids) {
+        try {
+            BatchGetRuleEventsDto response = ruleEventService.getBatch(ids);
             return ResponseEntity.ok(ApiResponse.success(response));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
@@ -50,11 +70,23 @@ public class RuleEventController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createBatch(@RequestBody List<CreateRuleEventRequestDto> requests) {
+        try {
+            BatchCreateRuleEventsDto response = ruleEventService.createBatch(requests);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Object> update(@PathVariable String id, @RequestBody UpdateRuleEventRequestDto request) {
         try {
             RuleEventDto response = ruleEventService.update(id, request);
             return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
         }
@@ -0,0 +1,42 @@
+package com.RulesILiveBy.dao;
+
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.entity.RuleEvent;
+
+@Component
+public class ExportDao {
+    private final MongoTemplate mongoTemplate;
+
+    public ExportDao(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Les flux s'appuient sur un curseur Mongo : ils doivent être fermés par l'appelant
+    public Stream<Rule> streamRules(String userId) {
+        Query query = new Query(Criteria.where("userId").is(userId))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt", "id"));
+        return mongoTemplate.stream(query, Rule.class);
+    }
+
+    public Stream<RuleEvent> streamRuleEvents(String userId) {
+        Query query = new Query(Criteria.where("userId").is(userId))
+                .with(Sort.by(Sort.Direction.ASC, "occurredAt", "id"));
+        return mongoTemplate.stream(query, RuleEvent.class);
+    }
+
+    public String findRuleTitle(String ruleId) {
+        Query query = new Query(Criteria.where("id").is(ruleId));
+        query.fields().include("title");
+
+        Rule rule = mongoTemplate.findOne(query, Rule.class);
+        return rule != null ? rule.getTitle() : null;
+    }
+}
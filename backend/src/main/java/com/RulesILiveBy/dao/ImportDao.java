@@ -0,0 +1,37 @@
+package com.RulesILiveBy.dao;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ImportDao {
+    private final MongoTemplate mongoTemplate;
+
+    public ImportDao(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Insère le lot sans s'arrêter à la première erreur et renvoie les erreurs par position dans le lot
+    public <T> Map<Integer, String> insertUnordered(List<T> documents, Class<T> entityClass) {
+        Map<Integer, String> errors = new HashMap<>();
+        if (documents.isEmpty()) {
+            return errors;
+        }
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, entityClass)
+                    .insert(documents)
+                    .execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> errors.put(error.getIndex(), error.getMessage()));
+        }
+
+        return errors;
+    }
+}
@@ -0,0 +1,65 @@
+package com.RulesILiveBy.dao;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.RulesILiveBy.common.FieldSelection;
+import com.RulesILiveBy.common.OffsetPageRequest;
+import com.RulesILiveBy.common.SortSpec;
+import com.RulesILiveBy.dto.rules.ListRequestDto;
+import com.RulesILiveBy.dto.rules.RuleResponse;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.repository.reactive.ReactiveRuleRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+public class ReactiveRuleDao {
+    private final ReactiveRuleRepository reactiveRuleRepository;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final int maxPageSize;
+
+    public ReactiveRuleDao(ReactiveRuleRepository reactiveRuleRepository, ReactiveMongoTemplate reactiveMongoTemplate,
+            @Value("${pagination.max-size:100}") int maxPageSize) {
+        this.reactiveRuleRepository = reactiveRuleRepository;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Mêmes paramètres que la liste bloquante ; after= reprend après un curseur, mais un flux n'a pas de
+    // corps où renvoyer nextCursor : le curseur suivant s'obtient par la liste bloquante
+    public Flux<RuleResponse> list(ListRequestDto request) {
+        SortSpec sort = SortSpec.parse(request.getSort(), RuleDao.DATE_FIELD, RuleDao.SORTABLE_FIELDS);
+        FieldSelection fields = FieldSelection.parse(request.getFields(), RuleDao.SELECTABLE_FIELDS);
+
+        Query query;
+        if (request.getAfter() != null && !request.getAfter().isEmpty()) {
+            query = RuleDao.buildAfterCursorQuery(request, sort)
+                    .limit(OffsetPageRequest.sizeOf(request.getSize(), maxPageSize));
+        } else {
+            OffsetPageRequest pageable = OffsetPageRequest.of(
+                    request.getPage(),
+                    request.getSize(),
+                    request.getOffset(),
+                    Sort.unsorted(),
+                    maxPageSize);
+            query = RuleDao.buildListQuery(RuleDao.buildFilterCriteria(request), sort).with(pageable);
+        }
+        fields.project(query, Map.of(), RuleDao.DATE_FIELD);
+
+        return reactiveMongoTemplate.find(query, Rule.class)
+                .map(RuleDao::mapToRuleResponse);
+    }
+
+    public Mono<RuleResponse> getOne(String id) {
+        return reactiveRuleRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Rule not found with id: " + id)))
+                .map(RuleDao::mapToRuleResponse);
+    }
+}
@@ -0,0 +1,99 @@
+package com.RulesILiveBy.dao;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.RulesILiveBy.common.FieldSelection;
+import com.RulesILiveBy.common.OffsetPageRequest;
+import com.RulesILiveBy.common.SortSpec;
+import com.RulesILiveBy.dto.RuleEvent.ListRuleEventRequest;
+import com.RulesILiveBy.dto.RuleEvent.RuleEventDto;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.repository.reactive.ReactiveRuleEventRepository;
+import com.RulesILiveBy.repository.reactive.ReactiveRuleRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Component
+public class ReactiveRuleEventDao {
+    // Taille des lots d'événements pour lesquels les règles sont chargées en une seule requête $in
+    private static final int RULE_LOOKUP_BATCH_SIZE = 100;
+
+    private final ReactiveRuleEventRepository reactiveRuleEventRepository;
+    private final ReactiveMongoTemplate reactiveMongoTemplate;
+    private final ReactiveRuleRepository reactiveRuleRepository;
+    private final int maxPageSize;
+
+    public ReactiveRuleEventDao(ReactiveRuleEventRepository reactiveRuleEventRepository,
+            ReactiveMongoTemplate reactiveMongoTemplate,
+            ReactiveRuleRepository reactiveRuleRepository,
+            @Value("${pagination.max-size:100}") int maxPageSize) {
+        this.reactiveRuleEventRepository = reactiveRuleEventRepository;
+        this.reactiveMongoTemplate = reactiveMongoTemplate;
+        this.reactiveRuleRepository = reactiveRuleRepository;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // Mêmes paramètres que la liste bloquante ; after= reprend après un curseur, mais un flux n'a pas de
+    // corps où renvoyer nextCursor : le curseur suivant s'obtient par la liste bloquante
+    public Flux<RuleEventDto> list(ListRuleEventRequest request) {
+        SortSpec sort = SortSpec.parse(request.getSort(), RuleEventDao.DATE_FIELD, RuleEventDao.SORTABLE_FIELDS);
+        FieldSelection fields = FieldSelection.parse(request.getFields(), RuleEventDao.SELECTABLE_FIELDS);
+
+        Query query;
+        if (request.getAfter() != null && !request.getAfter().isEmpty()) {
+            query = RuleEventDao.buildAfterCursorQuery(request, sort)
+                    .limit(OffsetPageRequest.sizeOf(request.getSize(), maxPageSize));
+        } else {
+            OffsetPageRequest pageable = OffsetPageRequest.of(
+                    request.getPage(),
+                    request.getSize(),
+                    request.getOffset(),
+                    Sort.unsorted(),
+                    maxPageSize);
+            query = RuleEventDao.buildListQuery(RuleEventDao.buildFilterCriteria(request), sort).with(pageable);
+        }
+        fields.project(query, RuleEventDao.DOCUMENT_FIELDS, RuleEventDao.DATE_FIELD);
+
+        Flux<RuleEvent> events = reactiveMongoTemplate.find(query, RuleEvent.class);
+        // Sans l'attribut rule demandé, les règles ne sont pas chargées
+        if (!fields.includes("rule")) {
+            return events.map(event -> RuleEventDao.mapToRuleEventDto(event, null));
+        }
+        return events
+                .buffer(RULE_LOOKUP_BATCH_SIZE)
+                .concatMap(this::mapToRuleEventDtos);
+    }
+
+    public Mono<RuleEventDto> getOne(String id) {
+        return reactiveRuleEventRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Rule event not found")))
+                .flatMap(event -> mapToRuleEventDtos(List.of(event)).next());
+    }
+
+    private Flux<RuleEventDto> mapToRuleEventDtos(List<RuleEvent> events) {
+        List<String> ruleIds = events.stream()
+                .map(RuleEvent::getRuleId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+
+        return reactiveRuleRepository.findAllById(ruleIds)
+                .collectMap(Rule::getId)
+                .flatMapMany(rules -> Flux.fromIterable(events)
+                        .map(event -> {
+                            Rule rule = rules.get(event.getRuleId());
+                            return RuleEventDao.mapToRuleEventDto(event,
+                                    rule != null ? RuleDao.mapToRuleResponse(rule) : null);
+                        }));
+    }
+}
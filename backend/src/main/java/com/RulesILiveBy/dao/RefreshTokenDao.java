@@ -0,0 +1,58 @@
+package com.RulesILiveBy.dao;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.RulesILiveBy.entity.RefreshToken;
+import com.RulesILiveBy.utils.HashUtil;
+
+@Component
+public class RefreshTokenDao {
+    private final MongoTemplate mongoTemplate;
+
+    public RefreshTokenDao(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void store(String userId, String token, LocalDateTime expiresAt) {
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setUserId(userId);
+        refreshToken.setTokenHash(HashUtil.sha256(token));
+        refreshToken.setExpiresAt(expiresAt);
+        refreshToken.setCreatedAt(LocalDateTime.now());
+        mongoTemplate.insert(refreshToken);
+    }
+
+    // Vérifie et remplace le token en un seul aller-retour : un même token ne peut être utilisé qu'une fois
+    public Optional<RefreshToken> rotate(String userId, String currentToken, String newToken,
+            LocalDateTime newExpiresAt) {
+        Query query = new Query(Criteria.where("tokenHash").is(HashUtil.sha256(currentToken))
+                .and("userId").is(userId)
+                .and("expiresAt").gt(LocalDateTime.now()));
+
+        Update update = new Update()
+                .set("tokenHash", HashUtil.sha256(newToken))
+                .set("expiresAt", newExpiresAt);
+
+        RefreshToken rotated = mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                RefreshToken.class);
+
+        return Optional.ofNullable(rotated);
+    }
+
+    public void delete(String token) {
+        mongoTemplate.remove(
+                new Query(Criteria.where("tokenHash").is(HashUtil.sha256(token))),
+                RefreshToken.class);
+    }
+}
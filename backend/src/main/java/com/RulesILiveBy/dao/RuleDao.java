@@ -1,136 +1,304 @@
 package com.RulesILiveBy.dao;
 
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import com.RulesILiveBy.common.FieldSelection;
+import com.RulesILiveBy.common.OffsetPageRequest;
+import com.RulesILiveBy.common.PageCursor;
+import com.RulesILiveBy.common.RowMetrics;
+import com.RulesILiveBy.common.SortSpec;
+import com.RulesILiveBy.dto.rules.BatchGetRulesDto;
 import com.RulesILiveBy.dto.rules.CreateRuleRequestDto;
 import com.RulesILiveBy.dto.rules.EditRuleRequestDto;
 import com.RulesILiveBy.dto.rules.ListRequestDto;
 import com.RulesILiveBy.dto.rules.ListRulesResponse;
+import com.RulesILiveBy.dto.rules.RuleBatchItemDto;
+import com.RulesILiveBy.dto.rules.RuleRankingDto;
 import com.RulesILiveBy.dto.rules.RuleResponse;
 import com.RulesILiveBy.dto.rules.StatsRespectedDto;
+import com.RulesILiveBy.dto.rules.StatsRespectedRequestDto;
 import com.RulesILiveBy.entity.Rule;
 import com.RulesILiveBy.entity.RuleEvent;
-import com.RulesILiveBy.repository.RuleEventRepository;
 import com.RulesILiveBy.repository.RuleRepository;
 import com.RulesILiveBy.types.EventTypeEnum;
 import com.RulesILiveBy.types.RuleStatusEnum;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Component
 public class RuleDao {
     private final RuleRepository ruleRepository;
-    private final RuleEventRepository ruleEventRepository;
-
-    public RuleDao(RuleRepository ruleRepository, RuleEventRepository ruleEventRepository) {
+    private final MongoTemplate mongoTemplate;
+    private final AsyncCache<String, Rule> asyncRuleCache;
+    private final Cache<String, Rule> ruleCache;
+    private final RowMetrics rowMetrics;
+    private final int maxPageSize;
+
+    static final String RULES_COLLECTION = "rules";
+    static final String DATE_FIELD = "createdAt";
+    static final List<String> SORTABLE_FIELDS = List.of(DATE_FIELD, "brokenCount", "respectedCount");
+    // Attributs de RuleResponse, stockés sous le même nom dans le document
+    static final List<String> SELECTABLE_FIELDS = List.of("id", "title", "description", "status", DATE_FIELD,
+            "respectedCount", "brokenCount", "lastEventAt", "version");
+
+    public RuleDao(
+            RuleRepository ruleRepository,
+            MongoTemplate mongoTemplate,
+            MeterRegistry meterRegistry,
+            RowMetrics rowMetrics,
+            @Value("${rules.cache.max-size:10000}") long cacheMaxSize,
+            @Value("${rules.cache.ttl:10m}") Duration cacheTtl,
+            @Value("${pagination.max-size:100}") int maxPageSize) {
         this.ruleRepository = ruleRepository;
-        this.ruleEventRepository = ruleEventRepository;
+        this.mongoTemplate = mongoTemplate;
+        // Cache asynchrone pour getAll : les ids manquants sont réservés avant le chargement groupé,
+        // une invalidation pendant ce chargement n'est donc pas écrasée par la copie lue
+        this.asyncRuleCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .buildAsync();
+        this.ruleCache = asyncRuleCache.synchronous();
+        CaffeineCacheMetrics.monitor(meterRegistry, ruleCache, "rules");
+        this.rowMetrics = rowMetrics;
+        this.maxPageSize = maxPageSize;
     }
 
     public ListRulesResponse list(ListRequestDto request) {
-        List<Rule> rules = getRulesByFilters(request);
+        SortSpec sort = SortSpec.parse(request.getSort(), DATE_FIELD, SORTABLE_FIELDS);
+        FieldSelection fields = FieldSelection.parse(request.getFields(), SELECTABLE_FIELDS);
+        if (request.getAfter() != null && !request.getAfter().isEmpty()) {
+            return listAfterCursor(request, sort, fields);
+        }
 
-        int page = request.getPage() != null ? request.getPage() : 0;
-        int size = request.getSize() != null ? request.getSize() : 10;
-        int offset = request.getOffset() != null ? request.getOffset() : 0;
+        OffsetPageRequest pageable = OffsetPageRequest.of(
+                request.getPage(),
+                request.getSize(),
+                request.getOffset(),
+                Sort.unsorted(),
+                maxPageSize);
+
+        Criteria criteria = buildFilterCriteria(request);
+        Query query = fields.project(buildListQuery(criteria, sort).with(pageable), Map.of(), DATE_FIELD);
+        List<Rule> rules = mongoTemplate.find(query, Rule.class);
+        rowMetrics.record("RuleDao.list", rules.size());
+        long totalElements = mongoTemplate.count(new Query(criteria), Rule.class);
+
+        List<RuleResponse> ruleResponses = rules.stream()
+                .map(RuleDao::mapToRuleResponse)
+                .collect(Collectors.toList());
 
-        if (page > 0) {
-            page = page - 1;
+        ListRulesResponse response = new ListRulesResponse();
+        response.setRules(ruleResponses);
+        response.setPage(request.getPage());
+        response.setSize(pageable.getPageSize());
+        response.setOffset(pageable.getExtraOffset());
+        response.setTotalElements((int) totalElements);
+
+        // Le curseur ne porte que (createdAt, id) : pas de page suivante par curseur sur un tri par compteur
+        if (DATE_FIELD.equals(sort.getField())
+                && !rules.isEmpty() && pageable.getOffset() + rules.size() < totalElements) {
+            Rule last = rules.get(rules.size() - 1);
+            response.setNextCursor(new PageCursor(last.getCreatedAt(), last.getId()).encode());
         }
 
-        int startIndex = (page * size);
-        int endIndex = Math.min(startIndex + size, rules.size());
+        return response;
+    }
+
+    private ListRulesResponse listAfterCursor(ListRequestDto request, SortSpec sort, FieldSelection fields) {
+        int size = OffsetPageRequest.sizeOf(request.getSize(), maxPageSize);
 
-        if (startIndex > rules.size()) {
-            startIndex = rules.size();
-        }
+        Query query = buildAfterCursorQuery(request, sort).limit(size + 1);
+        fields.project(query, Map.of(), DATE_FIELD);
 
-        List<Rule> paginatedRules = rules.subList(startIndex, endIndex);
+        List<Rule> rules = mongoTemplate.find(query, Rule.class);
+        rowMetrics.record("RuleDao.list", rules.size());
+        boolean hasNext = rules.size() > size;
+        if (hasNext) {
+            rules = rules.subList(0, size);
+        }
 
-        List<RuleResponse> ruleResponses = paginatedRules.stream()
-                .map(this::mapToRuleResponse)
+        List<RuleResponse> ruleResponses = rules.stream()
+                .map(RuleDao::mapToRuleResponse)
                 .collect(Collectors.toList());
 
         ListRulesResponse response = new ListRulesResponse();
         response.setRules(ruleResponses);
-        response.setPage(request.getPage());
         response.setSize(size);
-        response.setOffset(offset);
-        response.setTotalElements(rules.size());
+
+        if (hasNext) {
+            Rule last = rules.get(rules.size() - 1);
+            response.setNextCursor(new PageCursor(last.getCreatedAt(), last.getId()).encode());
+        }
 
         return response;
     }
 
     public RuleResponse getOne(String id) {
-        Rule rule = ruleRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Rule not found with id: " + id));
+        Rule rule = ruleCache.get(id, key -> ruleRepository.findById(key).orElse(null));
+        if (rule == null) {
+            throw new RuntimeException("Rule not found with id: " + id);
+        }
 
         return mapToRuleResponse(rule);
     }
 
-    public RuleResponse mostBroken(String userId) {
-        List<Rule> userRules = ruleRepository.findByUserId(userId);
+    public Map<String, RuleResponse> getByIds(Collection<String> ids) {
+        Map<String, RuleResponse> rules = new HashMap<>();
+        if (ids.isEmpty()) {
+            return rules;
+        }
 
-        if (userRules.isEmpty()) {
-            return new RuleResponse();
+        asyncRuleCache.getAll(ids, (missing, executor) -> CompletableFuture.completedFuture(loadRules(missing)))
+                .join()
+                .forEach((id, rule) -> rules.put(id, mapToRuleResponse(rule)));
+        return rules;
+    }
+
+    // Les ids absents du cache sont chargés par un seul $in ; l'ordre et les doublons de la demande sont conservés
+    public BatchGetRulesDto getBatch(List<String> ids) {
+        Map<String, RuleResponse> rules = getByIds(new LinkedHashSet<>(ids));
+
+        List<RuleBatchItemDto> results = new ArrayList<>(ids.size());
+        int found = 0;
+        for (String id : ids) {
+            RuleResponse rule = rules.get(id);
+            RuleBatchItemDto item = new RuleBatchItemDto();
+            item.setId(id);
+            item.setFound(rule != null);
+            item.setRule(rule);
+            results.add(item);
+            if (rule != null) {
+                found++;
+            }
         }
 
-        Optional<Rule> mostBrokenRule = userRules.stream()
-                .max((rule1, rule2) -> {
-                    long brokenCount1 = ruleEventRepository
-                            .findByRuleIdAndType(rule1.getId(), EventTypeEnum.BROKEN)
-                            .size();
-                    long brokenCount2 = ruleEventRepository
-                            .findByRuleIdAndType(rule2.getId(), EventTypeEnum.BROKEN)
-                            .size();
-                    return Long.compare(brokenCount1, brokenCount2);
-                });
+        BatchGetRulesDto response = new BatchGetRulesDto();
+        response.setResults(results);
+        response.setFound(found);
+        response.setMissing(ids.size() - found);
+        return response;
+    }
+
+    public Set<String> findOwnedRuleIds(String userId, Collection<String> ids) {
+        Query query = new Query(Criteria.where("id").in(ids).and("userId").is(userId));
+        query.fields().include("id");
+        return mongoTemplate.find(query, Rule.class).stream()
+                .map(Rule::getId)
+                .collect(Collectors.toSet());
+    }
 
-        return mostBrokenRule.map(this::mapToRuleResponse).orElseGet(RuleResponse::new);
+    public RuleResponse mostBroken(String userId) {
+        return topRuleByEventType(userId, EventTypeEnum.BROKEN);
     }
 
     public RuleResponse mostRespected(String userId) {
-        List<Rule> userRules = ruleRepository.findByUserId(userId);
+        return topRuleByEventType(userId, EventTypeEnum.RESPECTED);
+    }
 
-        if (userRules.isEmpty()) {
-            return new RuleResponse();
-        }
+    // Un seul aller-retour : les deux classements sont calculés par $facet sur les compteurs des règles
+    public RuleRankingDto ranking(String userId) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId)),
+                Aggregation.facet(topRuleOperations(EventTypeEnum.BROKEN)).as("mostBroken")
+                        .and(topRuleOperations(EventTypeEnum.RESPECTED)).as("mostRespected"));
 
-        Optional<Rule> mostRespectedRule = userRules.stream()
-                .max((rule1, rule2) -> {
-                    long respectedCount1 = ruleEventRepository
-                            .findByRuleIdAndType(rule1.getId(), EventTypeEnum.RESPECTED)
-                            .size();
-                    long respectedCount2 = ruleEventRepository
-                            .findByRuleIdAndType(rule2.getId(), EventTypeEnum.RESPECTED)
-                            .size();
-                    return Long.compare(respectedCount1, respectedCount2);
-                });
+        Document result = mongoTemplate
+                .aggregate(aggregation, Rule.class, Document.class)
+                .getUniqueMappedResult();
 
-        return mostRespectedRule.map(this::mapToRuleResponse).orElseGet(RuleResponse::new);
+        RuleRankingDto response = new RuleRankingDto();
+        response.setMostBroken(firstRankedRule(result, "mostBroken"));
+        response.setMostRespected(firstRankedRule(result, "mostRespected"));
+        return response;
     }
 
-    public StatsRespectedDto statsRespected(String userId) {
-        List<RuleEvent> allEvents = ruleEventRepository.findByUserId(userId);
+    public StatsRespectedDto statsRespected(StatsRespectedRequestDto request) {
+        Criteria criteria = Criteria.where("userId").is(request.getUserId());
+
+        Optional<LocalDateTime> fromDate = request.getFromDate() != null ? request.getFromDate() : Optional.empty();
+        Optional<LocalDateTime> toDate = request.getToDate() != null ? request.getToDate() : Optional.empty();
+
+        if (request.getRuleId() != null && !request.getRuleId().isEmpty()) {
+            criteria = criteria.and("ruleId").is(request.getRuleId());
+        }
+
+        // Intervalle semi-ouvert [fromDate, toDate), comme pour les listes et le rollup
+        if (fromDate.isPresent() || toDate.isPresent()) {
+            Criteria occurredAt = criteria.and("occurredAt");
+            fromDate.ifPresent(occurredAt::gte);
+            toDate.ifPresent(occurredAt::lt);
+        }
+
+        long totalCount;
+        long respectedCount;
+
+        if (fromDate.isEmpty() && toDate.isEmpty()) {
+            Criteria ruleCriteria = Criteria.where("userId").is(request.getUserId());
+            if (request.getRuleId() != null && !request.getRuleId().isEmpty()) {
+                ruleCriteria = ruleCriteria.and("id").is(request.getRuleId());
+            }
+
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.match(ruleCriteria),
+                    Aggregation.group()
+                            .sum("respectedCount").as("respectedCount")
+                            .sum("brokenCount").as("brokenCount"));
+
+            Document counters = mongoTemplate
+                    .aggregate(aggregation, Rule.class, Document.class)
+                    .getUniqueMappedResult();
+
+            respectedCount = counters != null ? counters.get("respectedCount", Number.class).longValue() : 0;
+            totalCount = counters != null ? respectedCount + counters.get("brokenCount", Number.class).longValue() : 0;
+        } else {
+            totalCount = mongoTemplate.count(new Query(criteria), RuleEvent.class);
+            respectedCount = totalCount == 0 ? 0 : mongoTemplate.count(
+                    new Query(criteria).addCriteria(Criteria.where("type").is(EventTypeEnum.RESPECTED)),
+                    RuleEvent.class);
+        }
 
         StatsRespectedDto response = new StatsRespectedDto();
 
-        if (allEvents.isEmpty()) {
+        if (totalCount == 0) {
             response.setTaux(BigDecimal.ZERO);
             return response;
         }
 
-        long respectedCount = allEvents.stream()
-                .filter(event -> event.getType() == EventTypeEnum.RESPECTED)
-                .count();
-
         BigDecimal taux = BigDecimal.valueOf(respectedCount)
-                .divide(BigDecimal.valueOf(allEvents.size()), 2, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(totalCount), 2, RoundingMode.HALF_UP)
                 .multiply(BigDecimal.valueOf(100));
 
         response.setTaux(taux);
@@ -147,75 +315,215 @@ public class RuleDao {
         rule.setUpdatedAt(LocalDateTime.now());
 
         Rule savedRule = ruleRepository.save(rule);
+        ruleCache.put(savedRule.getId(), savedRule);
 
         return mapToRuleResponse(savedRule);
     }
 
     public RuleResponse update(String id, EditRuleRequestDto request) {
-        Rule rule = ruleRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Rule not found with id: " + id));
-
         Optional<String> title = request.getTitle() != null ? request.getTitle() : Optional.empty();
         Optional<String> description = request.getDescription() != null ? request.getDescription() : Optional.empty();
 
-        title.ifPresent(rule::setTitle);
-        description.ifPresent(rule::setDescription);
-        rule.setUpdatedAt(LocalDateTime.now());
+        Update update = new Update().set("updatedAt", LocalDateTime.now());
+        title.ifPresent(value -> update.set("title", value));
+        description.ifPresent(value -> update.set("description", value));
 
-        Rule updatedRule = ruleRepository.save(rule);
+        Rule updatedRule = modify(id, request.getVersion(), update);
 
         return mapToRuleResponse(updatedRule);
     }
 
     public RuleResponse archive(String id) {
-        Rule rule = ruleRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Rule not found with id: " + id));
+        Update update = new Update()
+                .set("status", RuleStatusEnum.ARCHIVED)
+                .set("updatedAt", LocalDateTime.now());
 
-        rule.setStatus(RuleStatusEnum.ARCHIVED);
-        rule.setUpdatedAt(LocalDateTime.now());
-        Rule archivedRule = ruleRepository.save(rule);
+        Rule archivedRule = modify(id, null, update);
 
         return mapToRuleResponse(archivedRule);
     }
 
-    private RuleResponse mapToRuleResponse(Rule rule) {
+    private Rule modify(String id, Long expectedVersion, Update update) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expectedVersion != null) {
+            criteria = criteria.and("version").is(expectedVersion);
+        }
+
+        Rule modifiedRule = mongoTemplate.findAndModify(
+                new Query(criteria),
+                update.inc("version", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                Rule.class);
+
+        if (modifiedRule == null) {
+            if (expectedVersion != null && ruleRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("Rule was modified concurrently: " + id);
+            }
+            throw new RuntimeException("Rule not found with id: " + id);
+        }
+
+        ruleCache.put(modifiedRule.getId(), modifiedRule);
+        return modifiedRule;
+    }
+
+    // Comme avant les compteurs : une règle est renvoyée même sans événement,
+    // la réponse n'est vide que si l'utilisateur n'a aucune règle
+    private RuleResponse topRuleByEventType(String userId, EventTypeEnum type) {
+        String counter = counterField(type);
+
+        Query query = new Query(Criteria.where("userId").is(userId))
+                .with(Sort.by(Sort.Order.desc(counter), Sort.Order.asc("id")))
+                .limit(1);
+
+        return toRuleResponseOrEmpty(mongoTemplate.findOne(query, Rule.class));
+    }
+
+    private static AggregationOperation[] topRuleOperations(EventTypeEnum type) {
+        return new AggregationOperation[] {
+                Aggregation.sort(Sort.by(Sort.Order.desc(counterField(type)), Sort.Order.asc("_id"))),
+                Aggregation.limit(1)
+        };
+    }
+
+    private RuleResponse firstRankedRule(Document result, String facet) {
+        List<Document> ranked = result != null ? result.getList(facet, Document.class) : null;
+        if (ranked == null || ranked.isEmpty()) {
+            return new RuleResponse();
+        }
+        return mapToRuleResponse(mongoTemplate.getConverter().read(Rule.class, ranked.get(0)));
+    }
+
+    private static String counterField(EventTypeEnum type) {
+        return type == EventTypeEnum.RESPECTED ? "respectedCount" : "brokenCount";
+    }
+
+    private RuleResponse toRuleResponseOrEmpty(Rule rule) {
+        return rule != null ? mapToRuleResponse(rule) : new RuleResponse();
+    }
+
+    public void recordEvent(String ruleId, EventTypeEnum type, LocalDateTime occurredAt) {
+        Update update = new Update().max("lastEventAt", occurredAt);
+        if (type != null) {
+            update.inc(counterField(type), 1);
+        }
+
+        mongoTemplate.updateFirst(byId(ruleId), update, RULES_COLLECTION);
+        ruleCache.invalidate(ruleId);
+    }
+
+    public void recordEvents(List<RuleEvent> events) {
+        Map<String, Update> updates = new HashMap<>();
+        for (RuleEvent event : events) {
+            // Sans type ni date, l'événement ne change rien : un Update vide ferait rejeter tout le bulk
+            if (event.getType() == null && event.getOccurredAt() == null) {
+                continue;
+            }
+            Update update = updates.computeIfAbsent(event.getRuleId(), ruleId -> new Update());
+            if (event.getType() != null) {
+                update.inc(counterField(event.getType()), 1);
+            }
+            if (event.getOccurredAt() != null) {
+                update.max("lastEventAt", event.getOccurredAt());
+            }
+        }
+
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RULES_COLLECTION);
+        updates.forEach((ruleId, update) -> bulk.updateOne(byId(ruleId), update));
+        bulk.execute();
+        ruleCache.invalidateAll(updates.keySet());
+    }
+
+    public void moveEvent(String ruleId, EventTypeEnum fromType, EventTypeEnum toType) {
+        if (fromType == toType) {
+            return;
+        }
+
+        Update update = new Update();
+        if (fromType != null) {
+            update.inc(counterField(fromType), -1);
+        }
+        if (toType != null) {
+            update.inc(counterField(toType), 1);
+        }
+
+        mongoTemplate.updateFirst(byId(ruleId), update, RULES_COLLECTION);
+        ruleCache.invalidate(ruleId);
+    }
+
+    // Les compteurs passent par le nom de collection : avec Rule.class, MongoTemplate ajouterait $inc version
+    // et un événement ferait échouer la prochaine modification de la règle par un client
+    private static Query byId(String ruleId) {
+        return new Query(Criteria.where("_id").is(ObjectId.isValid(ruleId) ? new ObjectId(ruleId) : ruleId));
+    }
+
+    private Map<String, Rule> loadRules(Set<? extends String> ids) {
+        Map<String, Rule> rules = new HashMap<>();
+        ruleRepository.findAllById(new ArrayList<String>(ids))
+                .forEach(rule -> rules.put(rule.getId(), rule));
+        rowMetrics.record("RuleDao.getByIds", rules.size());
+        return rules;
+    }
+
+    static RuleResponse mapToRuleResponse(Rule rule) {
         RuleResponse response = new RuleResponse();
         response.setId(rule.getId());
         response.setTitle(rule.getTitle());
         response.setStatus(rule.getStatus());
         response.setDescription(rule.getDescription());
         response.setCreatedAt(rule.getCreatedAt());
+        response.setRespectedCount(rule.getRespectedCount());
+        response.setBrokenCount(rule.getBrokenCount());
+        response.setLastEventAt(rule.getLastEventAt());
+        response.setVersion(rule.getVersion());
         return response;
     }
 
-    private List<Rule> getRulesByFilters(ListRequestDto request) {
-        String userId = request.getUserId();
+    // Compose les filtres présents : chaque borne de date est facultative et s'applique seule,
+    // sur l'intervalle semi-ouvert [fromDate, toDate)
+    static Criteria buildFilterCriteria(ListRequestDto request) {
+        Criteria criteria = Criteria.where("userId").is(request.getUserId());
 
         Optional<RuleStatusEnum> status = request.getStatus() != null ? request.getStatus() : Optional.empty();
         Optional<LocalDateTime> fromDate = request.getFromDate() != null ? request.getFromDate() : Optional.empty();
         Optional<LocalDateTime> toDate = request.getToDate() != null ? request.getToDate() : Optional.empty();
 
-        if (status.isPresent() && fromDate.isPresent() && toDate.isPresent()) {
-            return ruleRepository.findByUserIdAndStatusAndCreatedAtBetween(
-                    userId,
-                    status.get(),
-                    fromDate.get(),
-                    toDate.get());
+        if (status.isPresent()) {
+            criteria = criteria.and("status").is(status.get());
         }
 
-        if (status.isPresent()) {
-            return ruleRepository.findByUserIdAndStatus(userId, status.get());
+        if (fromDate.isPresent() || toDate.isPresent()) {
+            Criteria createdAt = criteria.and(DATE_FIELD);
+            fromDate.ifPresent(createdAt::gte);
+            toDate.ifPresent(createdAt::lt);
         }
 
-        if (fromDate.isPresent() && toDate.isPresent()) {
-            return ruleRepository.findByUserIdAndCreatedAtBetween(
-                    userId,
-                    fromDate.get(),
-                    toDate.get());
+        return criteria;
+    }
+
+    static Query buildAfterCursorQuery(ListRequestDto request, SortSpec sort) {
+        if (!DATE_FIELD.equals(sort.getField())) {
+            throw new RuntimeException("after n'est utilisable qu'avec un tri sur " + DATE_FIELD);
+        }
+        Criteria afterCursor = PageCursor.decode(request.getAfter()).after(DATE_FIELD, sort.isAscending());
+        return buildListQuery(new Criteria().andOperator(buildFilterCriteria(request), afterCursor), sort);
+    }
+
+    // Tri aligné sur les index de la collection : (createdAt, _id) dans le même sens,
+    // (compteur, _id) en sens opposés comme rules_userId_brokenCount / rules_userId_respectedCount
+    static Query buildListQuery(Criteria criteria, SortSpec sort) {
+        Query query = new Query(criteria);
+        if (DATE_FIELD.equals(sort.getField())) {
+            return query.with(Sort.by(sort.getDirection(), DATE_FIELD, "id"));
         }
 
-        List<Rule> allRules = ruleRepository.findByUserId(userId);
-        return allRules;
+        Sort.Direction idDirection = sort.isAscending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return query
+                .with(Sort.by(new Sort.Order(sort.getDirection(), sort.getField()), new Sort.Order(idDirection, "id")))
+                .withHint("rules_userId_" + sort.getField());
     }
 
 }
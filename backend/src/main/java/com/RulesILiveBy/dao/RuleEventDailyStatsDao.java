@@ -0,0 +1,279 @@
+package com.RulesILiveBy.dao;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.MergeOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.RulesILiveBy.dto.rules.StatsPeriodDto;
+import com.RulesILiveBy.dto.rules.StatsRollupDto;
+import com.RulesILiveBy.dto.rules.StatsRollupRequestDto;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.entity.RuleEventDailyStats;
+import com.RulesILiveBy.types.EventTypeEnum;
+import com.RulesILiveBy.types.StatsGranularityEnum;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Component
+public class RuleEventDailyStatsDao {
+    private static final int LOCK_STRIPES = 1024;
+
+    private final MongoTemplate mongoTemplate;
+    // Verrous par utilisateur, répartis sur des bandes : les écritures d'événements prennent le verrou partagé,
+    // la reconstruction le verrou exclusif. Le verrou est local au processus : avec plusieurs instances,
+    // une reconstruction se lance hors trafic
+    private final ReentrantReadWriteLock[] userLocks = new ReentrantReadWriteLock[LOCK_STRIPES];
+
+    public RuleEventDailyStatsDao(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            userLocks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    // À employer autour de l'écriture d'un événement et de son $inc : une reconstruction qui lirait l'événement
+    // avant le $inc le compterait deux fois, et un $inc passé entre sa lecture et son $merge serait écrasé
+    public <T> T withUserCounters(Collection<String> userIds, Supplier<T> write) {
+        return withLocks(userIds, ReentrantReadWriteLock::readLock, write);
+    }
+
+    private <T> T withLocks(Collection<String> userIds, Function<ReentrantReadWriteLock, Lock> mode,
+            Supplier<T> action) {
+        // Toujours dans l'ordre des bandes : pas d'interblocage entre deux reconstructions ou avec un lot
+        SortedSet<Integer> stripes = new TreeSet<>();
+        userIds.forEach(userId -> stripes.add(Math.floorMod(Objects.hashCode(userId), LOCK_STRIPES)));
+
+        Deque<Lock> acquired = new ArrayDeque<>();
+        try {
+            for (int stripe : stripes) {
+                Lock lock = mode.apply(userLocks[stripe]);
+                lock.lock();
+                acquired.push(lock);
+            }
+            return action.get();
+        } finally {
+            while (!acquired.isEmpty()) {
+                acquired.pop().unlock();
+            }
+        }
+    }
+
+    public void recordEvent(String userId, String ruleId, LocalDateTime occurredAt, EventTypeEnum type) {
+        if (type == null || occurredAt == null) {
+            return;
+        }
+
+        mongoTemplate.upsert(
+                bucketQuery(userId, ruleId, occurredAt),
+                new Update().inc(counterField(type), 1),
+                RuleEventDailyStats.class);
+    }
+
+    public void recordEvents(List<RuleEvent> events) {
+        Map<String, RuleEvent> firstEventByBucket = new LinkedHashMap<>();
+        Map<String, Update> updates = new LinkedHashMap<>();
+        for (RuleEvent event : events) {
+            if (event.getType() == null || event.getOccurredAt() == null) {
+                continue;
+            }
+            String bucket = event.getUserId() + "|" + event.getRuleId() + "|" + event.getOccurredAt().toLocalDate();
+            firstEventByBucket.putIfAbsent(bucket, event);
+            updates.computeIfAbsent(bucket, key -> new Update()).inc(counterField(event.getType()), 1);
+        }
+
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RuleEventDailyStats.class);
+        updates.forEach((bucket, update) -> {
+            RuleEvent event = firstEventByBucket.get(bucket);
+            bulk.upsert(bucketQuery(event.getUserId(), event.getRuleId(), event.getOccurredAt()), update);
+        });
+        bulk.execute();
+    }
+
+    public void moveEvent(String userId, String ruleId, LocalDateTime occurredAt,
+            EventTypeEnum fromType, EventTypeEnum toType) {
+        if (fromType == toType || occurredAt == null) {
+            return;
+        }
+
+        Update update = new Update();
+        if (fromType != null) {
+            update.inc(counterField(fromType), -1);
+        }
+        if (toType != null) {
+            update.inc(counterField(toType), 1);
+        }
+
+        mongoTemplate.upsert(bucketQuery(userId, ruleId, occurredAt), update, RuleEventDailyStats.class);
+    }
+
+    public StatsRollupDto rollup(StatsRollupRequestDto request) {
+        Criteria criteria = Criteria.where("userId").is(request.getUserId());
+
+        Optional<LocalDateTime> fromDate = request.getFromDate() != null ? request.getFromDate() : Optional.empty();
+        Optional<LocalDateTime> toDate = request.getToDate() != null ? request.getToDate() : Optional.empty();
+
+        if (request.getRuleId() != null && !request.getRuleId().isEmpty()) {
+            criteria = criteria.and("ruleId").is(request.getRuleId());
+        }
+
+        // [fromDate, toDate) ramené aux jours : exact pour des bornes à minuit, sinon le jour entamé
+        // par toDate est compté en entier (le rollup n'a pas de granularité plus fine)
+        if (fromDate.isPresent() || toDate.isPresent()) {
+            Criteria day = criteria.and("day");
+            fromDate.ifPresent(date -> day.gte(date.toLocalDate().toString()));
+            toDate.ifPresent(date -> day.lt(firstDayAfter(date).toString()));
+        }
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.group("day")
+                        .sum("respectedCount").as("respectedCount")
+                        .sum("brokenCount").as("brokenCount"),
+                Aggregation.sort(Sort.Direction.ASC, "_id"));
+
+        List<Document> days = mongoTemplate
+                .aggregate(aggregation, RuleEventDailyStats.class, Document.class)
+                .getMappedResults();
+
+        StatsGranularityEnum granularity = request.getGranularity() != null
+                ? request.getGranularity()
+                : StatsGranularityEnum.DAY;
+
+        Map<String, StatsPeriodDto> periods = new LinkedHashMap<>();
+        long respectedCount = 0;
+        long brokenCount = 0;
+
+        for (Document day : days) {
+            long respected = day.get("respectedCount", Number.class).longValue();
+            long broken = day.get("brokenCount", Number.class).longValue();
+
+            String period = periodOf(LocalDate.parse(day.getString("_id")), granularity);
+            StatsPeriodDto periodDto = periods.computeIfAbsent(period, key -> {
+                StatsPeriodDto dto = new StatsPeriodDto();
+                dto.setPeriod(key);
+                return dto;
+            });
+            periodDto.setRespectedCount(periodDto.getRespectedCount() + respected);
+            periodDto.setBrokenCount(periodDto.getBrokenCount() + broken);
+
+            respectedCount += respected;
+            brokenCount += broken;
+        }
+
+        periods.values().forEach(period -> period.setTaux(
+                taux(period.getRespectedCount(), period.getRespectedCount() + period.getBrokenCount())));
+
+        StatsRollupDto response = new StatsRollupDto();
+        response.setPeriods(new ArrayList<>(periods.values()));
+        response.setRespectedCount(respectedCount);
+        response.setBrokenCount(brokenCount);
+        response.setTaux(taux(respectedCount, respectedCount + brokenCount));
+        return response;
+    }
+
+    // Recalcule les jours des utilisateurs côté serveur et les fusionne par $merge sur (userId, ruleId, day) :
+    // pas de suppression préalable, donc pas de fenêtre où un upsert concurrent perd son jour ou heurte l'index unique.
+    // Les écritures d'événements de ces utilisateurs attendent la fin du $merge (voir withUserCounters)
+    public int rebuildUsers(Collection<String> userIds) {
+        return withLocks(userIds, ReentrantReadWriteLock::writeLock, () -> mergeRebuiltDays(userIds));
+    }
+
+    private int mergeRebuiltDays(Collection<String> userIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").in(userIds)),
+                Aggregation.project("userId", "ruleId", "type")
+                        .and(DateOperators.DateToString.dateOf("occurredAt")
+                                .toString("%Y-%m-%d")
+                                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId())))
+                        .as("day"),
+                Aggregation.group("userId", "ruleId", "day")
+                        .sum(countOf(EventTypeEnum.RESPECTED)).as("respectedCount")
+                        .sum(countOf(EventTypeEnum.BROKEN)).as("brokenCount"),
+                // Les clés du groupe sont rendues en $_id.userId, $_id.ruleId, $_id.day
+                Aggregation.project("userId", "ruleId", "day", "respectedCount", "brokenCount")
+                        .andExclude("_id"),
+                Aggregation.merge()
+                        .intoCollection(mongoTemplate.getCollectionName(RuleEventDailyStats.class))
+                        .on("userId", "ruleId", "day")
+                        .whenMatched(MergeOperation.WhenDocumentsMatch.mergeDocuments())
+                        .whenNotMatched(MergeOperation.WhenDocumentsDontMatch.insertNewDocument())
+                        .build());
+
+        mongoTemplate.aggregate(aggregation, RuleEvent.class, Document.class);
+
+        return (int) mongoTemplate.count(new Query(Criteria.where("userId").in(userIds)), RuleEventDailyStats.class);
+    }
+
+    private static ConditionalOperators.Cond countOf(EventTypeEnum type) {
+        return ConditionalOperators.when(Criteria.where("type").is(type.name())).then(1).otherwise(0);
+    }
+
+    private Query bucketQuery(String userId, String ruleId, LocalDateTime occurredAt) {
+        return new Query(Criteria.where("userId").is(userId)
+                .and("ruleId").is(ruleId)
+                .and("day").is(occurredAt.toLocalDate().toString()));
+    }
+
+    private static String counterField(EventTypeEnum type) {
+        return type == EventTypeEnum.RESPECTED ? "respectedCount" : "brokenCount";
+    }
+
+    // Premier jour entièrement après la borne exclue toDate
+    private static LocalDate firstDayAfter(LocalDateTime toDate) {
+        LocalDate day = toDate.toLocalDate();
+        return toDate.equals(day.atStartOfDay()) ? day : day.plusDays(1);
+    }
+
+    private static String periodOf(LocalDate day, StatsGranularityEnum granularity) {
+        switch (granularity) {
+            case WEEK:
+                return day.with(DayOfWeek.MONDAY).toString();
+            case MONTH:
+                return day.withDayOfMonth(1).toString();
+            default:
+                return day.toString();
+        }
+    }
+
+    private static BigDecimal taux(long respectedCount, long totalCount) {
+        if (totalCount == 0) {
+            return BigDecimal.ZERO;
+        }
+        return BigDecimal.valueOf(respectedCount)
+                .divide(BigDecimal.valueOf(totalCount), 2, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100));
+    }
+}
@@ -1,10 +1,29 @@
 package com.RulesILiveBy.dao;
 
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
+import com.RulesILiveBy.common.FieldSelection;
+import com.RulesILiveBy.common.OffsetPageRequest;
+import com.RulesILiveBy.common.PageCursor;
+import com.RulesILiveBy.common.RowMetrics;
+import com.RulesILiveBy.common.SortSpec;
+import com.RulesILiveBy.dto.RuleEvent.BatchCreateRuleEventsDto;
+import com.RulesILiveBy.dto.RuleEvent.BatchGetRuleEventsDto;
+import com.RulesILiveBy.dto.RuleEvent.BatchItemResultDto;
 import com.RulesILiveBy.dto.RuleEvent.CreateRuleEventRequestDto;
 import com.RulesILiveBy.dto.RuleEvent.ListRuleEventRequest;
 import com.RulesILiveBy.dto.RuleEvent.ListRuleEventsDto;
+import com.RulesILiveBy.dto.RuleEvent.RuleEventBatchItemDto;
 import com.RulesILiveBy.dto.RuleEvent.RuleEventDto;
 import com.RulesILiveBy.dto.RuleEvent.UpdateRuleEventRequestDto;
 import com.RulesILiveBy.dto.rules.RuleResponse;
@@ -13,50 +32,105 @@ import com.RulesILiveBy.repository.RuleEventRepository;
 import com.RulesILiveBy.types.EventTypeEnum;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class RuleEventDao {
     private final RuleEventRepository ruleEventRepository;
     private final RuleDao ruleDao;
+    private final RuleEventDailyStatsDao ruleEventDailyStatsDao;
+    private final MongoTemplate mongoTemplate;
+    private final RowMetrics rowMetrics;
+    private final int maxPageSize;
 
-    public RuleEventDao(RuleEventRepository ruleEventRepository, RuleDao ruleDao) {
+    static final String DATE_FIELD = "occurredAt";
+    static final List<String> SORTABLE_FIELDS = List.of(DATE_FIELD);
+    // Attributs de RuleEventDto et, quand il diffère, le champ du document qui les alimente
+    static final List<String> SELECTABLE_FIELDS = List.of("id", "rule", "type", "context", "emotion", "note",
+            "occuredAt", "version");
+    static final Map<String, String> DOCUMENT_FIELDS = Map.of("rule", "ruleId", "occuredAt", DATE_FIELD);
+
+    public RuleEventDao(RuleEventRepository ruleEventRepository, RuleDao ruleDao,
+            RuleEventDailyStatsDao ruleEventDailyStatsDao, MongoTemplate mongoTemplate, RowMetrics rowMetrics,
+            @Value("${pagination.max-size:100}") int maxPageSize) {
         this.ruleEventRepository = ruleEventRepository;
         this.ruleDao = ruleDao;
+        this.ruleEventDailyStatsDao = ruleEventDailyStatsDao;
+        this.mongoTemplate = mongoTemplate;
+        this.rowMetrics = rowMetrics;
+        this.maxPageSize = maxPageSize;
     }
 
     public ListRuleEventsDto list(ListRuleEventRequest request) {
-        List<RuleEvent> events = getRuleEventsByFilters(request);
+        SortSpec sort = SortSpec.parse(request.getSort(), DATE_FIELD, SORTABLE_FIELDS);
+        FieldSelection fields = FieldSelection.parse(request.getFields(), SELECTABLE_FIELDS);
+        if (request.getAfter() != null && !request.getAfter().isEmpty()) {
+            return listAfterCursor(request, sort, fields);
+        }
 
-        int page = request.getPage() != null ? request.getPage() : 0;
-        int size = request.getSize() != null ? request.getSize() : 10;
-        int offset = request.getOffset() != null ? request.getOffset() : 0;
+        OffsetPageRequest pageable = OffsetPageRequest.of(
+                request.getPage(),
+                request.getSize(),
+                request.getOffset(),
+                Sort.unsorted(),
+                maxPageSize);
 
-        if (page > 0) {
-            page = page - 1;
-        }
+        Criteria criteria = buildFilterCriteria(request);
+        Query query = fields.project(buildListQuery(criteria, sort).with(pageable), DOCUMENT_FIELDS, DATE_FIELD);
+        List<RuleEvent> events = mongoTemplate.find(query, RuleEvent.class);
+        rowMetrics.record("RuleEventDao.list", events.size());
+        long totalElements = mongoTemplate.count(new Query(criteria), RuleEvent.class);
 
-        int startIndex = (page * size);
-        int endIndex = Math.min(startIndex + size, events.size());
+        List<RuleEventDto> eventResponses = mapToRuleEventDtos(events, fields.includes("rule"));
 
-        if (startIndex > events.size()) {
-            startIndex = events.size();
+        ListRuleEventsDto response = new ListRuleEventsDto();
+        response.setRules(eventResponses);
+        response.setPage(request.getPage());
+        response.setSize(pageable.getPageSize());
+        response.setOffset(pageable.getExtraOffset());
+        response.setTotalElements((int) totalElements);
+
+        if (!events.isEmpty() && pageable.getOffset() + events.size() < totalElements) {
+            RuleEvent last = events.get(events.size() - 1);
+            response.setNextCursor(new PageCursor(last.getOccurredAt(), last.getId()).encode());
         }
 
-        List<RuleEvent> paginatedEvents = events.subList(startIndex, endIndex);
+        return response;
+    }
+
+    private ListRuleEventsDto listAfterCursor(ListRuleEventRequest request, SortSpec sort, FieldSelection fields) {
+        int size = OffsetPageRequest.sizeOf(request.getSize(), maxPageSize);
 
-        List<RuleEventDto> eventResponses = paginatedEvents.stream()
-                .map(this::mapToRuleEventDto)
-                .collect(Collectors.toList());
+        Query query = buildAfterCursorQuery(request, sort).limit(size + 1);
+        fields.project(query, DOCUMENT_FIELDS, DATE_FIELD);
+
+        List<RuleEvent> events = mongoTemplate.find(query, RuleEvent.class);
+        rowMetrics.record("RuleEventDao.list", events.size());
+        boolean hasNext = events.size() > size;
+        if (hasNext) {
+            events = events.subList(0, size);
+        }
+
+        List<RuleEventDto> eventResponses = mapToRuleEventDtos(events, fields.includes("rule"));
 
         ListRuleEventsDto response = new ListRuleEventsDto();
         response.setRules(eventResponses);
-        response.setPage(request.getPage());
         response.setSize(size);
-        response.setOffset(offset);
-        response.setTotalElements(events.size());
+
+        if (hasNext) {
+            RuleEvent last = events.get(events.size() - 1);
+            response.setNextCursor(new PageCursor(last.getOccurredAt(), last.getId()).encode());
+        }
 
         return response;
     }
@@ -67,6 +141,36 @@ public class RuleEventDao {
         return mapToRuleEventDto(ruleEvent);
     }
 
+    // Un $in pour les événements et un seul chargement groupé de leurs règles ; l'ordre de la demande est conservé
+    public BatchGetRuleEventsDto getBatch(List<String> ids) {
+        List<RuleEvent> events = new ArrayList<>();
+        ruleEventRepository.findAllById(new LinkedHashSet<>(ids)).forEach(events::add);
+        rowMetrics.record("RuleEventDao.getBatch", events.size());
+
+        Map<String, RuleEventDto> dtos = new HashMap<>();
+        mapToRuleEventDtos(events).forEach(dto -> dtos.put(dto.getId(), dto));
+
+        List<RuleEventBatchItemDto> results = new ArrayList<>(ids.size());
+        int found = 0;
+        for (String id : ids) {
+            RuleEventDto event = dtos.get(id);
+            RuleEventBatchItemDto item = new RuleEventBatchItemDto();
+            item.setId(id);
+            item.setFound(event != null);
+            item.setEvent(event);
+            results.add(item);
+            if (event != null) {
+                found++;
+            }
+        }
+
+        BatchGetRuleEventsDto response = new BatchGetRuleEventsDto();
+        response.setResults(results);
+        response.setFound(found);
+        response.setMissing(ids.size() - found);
+        return response;
+    }
+
     public RuleEventDto create(CreateRuleEventRequestDto request) {
         RuleEvent ruleEvent = new RuleEvent();
         ruleEvent.setContext(request.getContext());
@@ -76,61 +180,236 @@ public class RuleEventDao {
         ruleEvent.setRuleId(request.getRuleId());
         ruleEvent.setType(request.getType());
         ruleEvent.setUserId(request.getUserId());
-        RuleEvent savedRuleEvent = ruleEventRepository.save(ruleEvent);
+        Set<String> userIds = Collections.singleton(ruleEvent.getUserId());
+        RuleEvent savedRuleEvent = ruleEventDailyStatsDao.withUserCounters(userIds, () -> {
+            RuleEvent saved = ruleEventRepository.save(ruleEvent);
+            ruleDao.recordEvent(saved.getRuleId(), saved.getType(), saved.getOccurredAt());
+            ruleEventDailyStatsDao.recordEvent(
+                    saved.getUserId(),
+                    saved.getRuleId(),
+                    saved.getOccurredAt(),
+                    saved.getType());
+            return saved;
+        });
         return mapToRuleEventDto(savedRuleEvent);
     }
 
+    public BatchCreateRuleEventsDto createBatch(List<CreateRuleEventRequestDto> requests) {
+        List<BatchItemResultDto> results = new ArrayList<>();
+        List<RuleEvent> toInsert = new ArrayList<>();
+        List<Integer> insertIndexes = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            CreateRuleEventRequestDto request = requests.get(i);
+            BatchItemResultDto result = new BatchItemResultDto();
+            result.setIndex(i);
+            results.add(result);
+
+            String error = validate(request);
+            if (error != null) {
+                result.setError(error);
+                continue;
+            }
+
+            RuleEvent ruleEvent = new RuleEvent();
+            ruleEvent.setId(new ObjectId().toHexString());
+            ruleEvent.setContext(request.getContext());
+            ruleEvent.setEmotion(request.getEmotion());
+            ruleEvent.setNote(request.getNote());
+            ruleEvent.setOccurredAt(LocalDateTime.now());
+            ruleEvent.setRuleId(request.getRuleId());
+            ruleEvent.setType(request.getType());
+            ruleEvent.setUserId(request.getUserId());
+            ruleEvent.setVersion(0L);
+            toInsert.add(ruleEvent);
+            insertIndexes.add(i);
+        }
+
+        Set<Integer> failedInserts = new HashSet<>();
+        List<RuleEvent> inserted = new ArrayList<>();
+        Set<String> userIds = toInsert.stream().map(RuleEvent::getUserId).collect(Collectors.toSet());
+        ruleEventDailyStatsDao.withUserCounters(userIds, () -> {
+            if (!toInsert.isEmpty()) {
+                try {
+                    mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RuleEvent.class)
+                            .insert(toInsert)
+                            .execute();
+                } catch (BulkOperationException e) {
+                    e.getErrors().forEach(error -> {
+                        failedInserts.add(error.getIndex());
+                        results.get(insertIndexes.get(error.getIndex())).setError(error.getMessage());
+                    });
+                }
+            }
+
+            for (int i = 0; i < toInsert.size(); i++) {
+                if (!failedInserts.contains(i)) {
+                    inserted.add(toInsert.get(i));
+                }
+            }
+
+            ruleDao.recordEvents(inserted);
+            ruleEventDailyStatsDao.recordEvents(inserted);
+            return inserted;
+        });
+
+        List<RuleEventDto> insertedDtos = mapToRuleEventDtos(inserted);
+        int dtoIndex = 0;
+        for (int i = 0; i < toInsert.size(); i++) {
+            if (failedInserts.contains(i)) {
+                continue;
+            }
+            BatchItemResultDto result = results.get(insertIndexes.get(i));
+            result.setSuccess(true);
+            result.setEvent(insertedDtos.get(dtoIndex++));
+        }
+
+        BatchCreateRuleEventsDto response = new BatchCreateRuleEventsDto();
+        response.setResults(results);
+        response.setCreated(inserted.size());
+        response.setFailed(requests.size() - inserted.size());
+        return response;
+    }
+
+    private String validate(CreateRuleEventRequestDto request) {
+        if (request == null) {
+            return "Événement vide";
+        }
+        if (request.getUserId() == null || request.getUserId().isEmpty()) {
+            return "userId ne peut pas être vide";
+        }
+        if (request.getRuleId() == null || request.getRuleId().isEmpty()) {
+            return "ruleId ne peut pas être vide";
+        }
+        if (request.getType() == null) {
+            return "type ne peut pas être vide";
+        }
+        return null;
+    }
+
     public RuleEventDto update(String id, UpdateRuleEventRequestDto request) {
-        RuleEvent ruleEvent = ruleEventRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Rule event not found with id: " + id));
+        if (request.getType() == null || request.getType().isEmpty()) {
+            return applyUpdate(id, request);
+        }
 
+        // Un changement de type déplace les compteurs du jour : même verrou que la création (l'utilisateur
+        // d'un événement ne change pas, il est lu avant la modification)
+        Query owner = new Query(Criteria.where("id").is(id));
+        owner.fields().include("userId");
+        RuleEvent current = mongoTemplate.findOne(owner, RuleEvent.class);
+        if (current == null) {
+            throw new RuntimeException("Rule event not found with id: " + id);
+        }
+        return ruleEventDailyStatsDao.withUserCounters(Collections.singleton(current.getUserId()),
+                () -> applyUpdate(id, request));
+    }
+
+    private RuleEventDto applyUpdate(String id, UpdateRuleEventRequestDto request) {
         Optional<String> context = request.getContext() != null ? request.getContext() : Optional.empty();
         Optional<String> emotion = request.getEmotion() != null ? request.getEmotion() : Optional.empty();
         Optional<String> note = request.getNote() != null ? request.getNote() : Optional.empty();
         Optional<EventTypeEnum> type = request.getType() != null ? request.getType() : Optional.empty();
 
+        Criteria criteria = Criteria.where("id").is(id);
+        if (request.getVersion() != null) {
+            criteria = criteria.and("version").is(request.getVersion());
+        }
+
+        Update update = new Update().inc("version", 1);
+        context.ifPresent(value -> update.set("context", value));
+        emotion.ifPresent(value -> update.set("emotion", value));
+        note.ifPresent(value -> update.set("note", value));
+        type.ifPresent(value -> update.set("type", value));
+
+        // On récupère l'état précédent pour ajuster les compteurs si le type change
+        RuleEvent ruleEvent = mongoTemplate.findAndModify(new Query(criteria), update, RuleEvent.class);
+
+        if (ruleEvent == null) {
+            if (request.getVersion() != null && ruleEventRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("Rule event was modified concurrently: " + id);
+            }
+            throw new RuntimeException("Rule event not found with id: " + id);
+        }
+
+        EventTypeEnum previousType = ruleEvent.getType();
+
         context.ifPresent(ruleEvent::setContext);
         emotion.ifPresent(ruleEvent::setEmotion);
         note.ifPresent(ruleEvent::setNote);
         type.ifPresent(ruleEvent::setType);
+        ruleEvent.setVersion(ruleEvent.getVersion() != null ? ruleEvent.getVersion() + 1 : 1L);
 
-        RuleEvent updatedRuleEvent = ruleEventRepository.save(ruleEvent);
+        ruleDao.moveEvent(ruleEvent.getRuleId(), previousType, ruleEvent.getType());
+        ruleEventDailyStatsDao.moveEvent(
+                ruleEvent.getUserId(),
+                ruleEvent.getRuleId(),
+                ruleEvent.getOccurredAt(),
+                previousType,
+                ruleEvent.getType());
 
-        return mapToRuleEventDto(updatedRuleEvent);
+        return mapToRuleEventDto(ruleEvent);
     }
 
-    private List<RuleEvent> getRuleEventsByFilters(ListRuleEventRequest request) {
-        String userId = request.getUserId();
+    // Compose les filtres présents : chaque borne de date est facultative et s'applique seule,
+    // sur l'intervalle semi-ouvert [fromDate, toDate)
+    static Criteria buildFilterCriteria(ListRuleEventRequest request) {
+        Criteria criteria = Criteria.where("userId").is(request.getUserId());
 
-        Optional<EventTypeEnum> type = request.getType() != null ? Optional.of(request.getType()) : Optional.empty();
         Optional<LocalDateTime> fromDate = request.getFromDate() != null ? request.getFromDate() : Optional.empty();
         Optional<LocalDateTime> toDate = request.getToDate() != null ? request.getToDate() : Optional.empty();
 
-        if (type.isPresent() && fromDate.isPresent() && toDate.isPresent()) {
-            return ruleEventRepository.findByUserIdAndTypeAndOccurredAtBetween(
-                    userId,
-                    type.get(),
-                    fromDate.get(),
-                    toDate.get());
+        if (request.getType() != null) {
+            criteria = criteria.and("type").is(request.getType());
         }
 
-        if (fromDate.isPresent() && toDate.isPresent()) {
-            return ruleEventRepository.findByUserIdAndOccurredAtBetween(
-                    userId,
-                    fromDate.get(),
-                    toDate.get());
+        if (fromDate.isPresent() || toDate.isPresent()) {
+            Criteria occurredAt = criteria.and(DATE_FIELD);
+            fromDate.ifPresent(occurredAt::gte);
+            toDate.ifPresent(occurredAt::lt);
         }
 
-        if (type.isPresent()) {
-            return ruleEventRepository.findByUserIdAndType(userId, type.get());
-        }
+        return criteria;
+    }
 
-        return ruleEventRepository.findByUserId(userId);
+    static Query buildAfterCursorQuery(ListRuleEventRequest request, SortSpec sort) {
+        Criteria afterCursor = PageCursor.decode(request.getAfter()).after(DATE_FIELD, sort.isAscending());
+        return buildListQuery(new Criteria().andOperator(buildFilterCriteria(request), afterCursor), sort);
+    }
+
+    // (occurredAt, _id) dans le même sens, servi par ruleEvents_userId_occurredAt ou ruleEvents_userId_type_occurredAt
+    static Query buildListQuery(Criteria criteria, SortSpec sort) {
+        return new Query(criteria).with(Sort.by(sort.getDirection(), DATE_FIELD, "id"));
     }
 
     private RuleEventDto mapToRuleEventDto(RuleEvent event) {
-        RuleResponse rule = ruleDao.getOne(event.getRuleId());
+        return mapToRuleEventDtos(List.of(event)).get(0);
+    }
+
+    private List<RuleEventDto> mapToRuleEventDtos(List<RuleEvent> events) {
+        return mapToRuleEventDtos(events, true);
+    }
+
+    // Sans l'attribut rule demandé, les règles ne sont pas chargées
+    private List<RuleEventDto> mapToRuleEventDtos(List<RuleEvent> events, boolean withRules) {
+        if (!withRules) {
+            return events.stream()
+                    .map(event -> mapToRuleEventDto(event, null))
+                    .collect(Collectors.toList());
+        }
+
+        Set<String> ruleIds = events.stream()
+                .map(RuleEvent::getRuleId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<String, RuleResponse> rules = ruleDao.getByIds(ruleIds);
+
+        return events.stream()
+                .map(event -> mapToRuleEventDto(event, rules.get(event.getRuleId())))
+                .collect(Collectors.toList());
+    }
 
+    static RuleEventDto mapToRuleEventDto(RuleEvent event, RuleResponse rule) {
         RuleEventDto dto = new RuleEventDto();
         dto.setId(event.getId());
         dto.setRule(rule);
@@ -139,6 +418,7 @@ public class RuleEventDao {
         dto.setEmotion(event.getEmotion());
         dto.setNote(event.getNote());
         dto.setOccuredAt(event.getOccurredAt());
+        dto.setVersion(event.getVersion());
         return dto;
     }
 }
@@ -5,16 +5,25 @@ import com.RulesILiveBy.dto.user.UserDto;
 import com.RulesILiveBy.entity.User;
 import com.RulesILiveBy.repository.UserRepository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Component;
 
 @Component
 public class UserDao {
     private final UserRepository userRepository;
+    private final MongoTemplate mongoTemplate;
 
-    public UserDao(UserRepository userRepository) {
+    public UserDao(UserRepository userRepository, MongoTemplate mongoTemplate) {
         this.userRepository = userRepository;
+        this.mongoTemplate = mongoTemplate;
     }
 
     public Optional<User> findById(String id) {
@@ -30,26 +39,40 @@ public class UserDao {
     }
 
     public UserDto update(String id, UpdateRequestDto request) {
-        Optional<User> optionalUser = userRepository.findById(id);
-        if (optionalUser.isEmpty()) {
-            throw new RuntimeException("User not found");
+        Criteria criteria = Criteria.where("id").is(id);
+        if (request.getVersion() != null) {
+            criteria = criteria.and("version").is(request.getVersion());
         }
 
-        User user = optionalUser.get();
+        Update update = new Update()
+                .set("updatedAt", LocalDateTime.now())
+                .inc("version", 1);
 
         if (request.getEmail() != null) {
-            user.setEmail(request.getEmail());
+            update.set("email", request.getEmail());
         }
         if (request.getUsername() != null) {
-            user.setUsername(request.getUsername());
+            update.set("username", request.getUsername());
         }
 
-        User updatedUser = userRepository.save(user);
+        User updatedUser = mongoTemplate.findAndModify(
+                new Query(criteria),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                User.class);
+
+        if (updatedUser == null) {
+            if (request.getVersion() != null && userRepository.existsById(id)) {
+                throw new OptimisticLockingFailureException("User was modified concurrently");
+            }
+            throw new RuntimeException("User not found");
+        }
 
         UserDto userDto = new UserDto();
         userDto.setId(updatedUser.getId());
         userDto.setEmail(updatedUser.getEmail());
         userDto.setUsername(updatedUser.getUsername());
+        userDto.setVersion(updatedUser.getVersion());
 
         return userDto;
     }
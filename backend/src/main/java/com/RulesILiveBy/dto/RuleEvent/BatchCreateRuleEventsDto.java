@@ -0,0 +1,12 @@
+package com.RulesILiveBy.dto.RuleEvent;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchCreateRuleEventsDto {
+    private List<BatchItemResultDto> results;
+    private int created;
+    private int failed;
+}
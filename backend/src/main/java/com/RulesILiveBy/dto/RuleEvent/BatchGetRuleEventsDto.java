@@ -0,0 +1,12 @@
+package com.RulesILiveBy.dto.RuleEvent;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchGetRuleEventsDto {
+    private List<RuleEventBatchItemDto> results;
+    private int found;
+    private int missing;
+}
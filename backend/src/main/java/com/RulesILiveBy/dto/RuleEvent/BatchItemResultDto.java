@@ -0,0 +1,11 @@
+package com.RulesILiveBy.dto.RuleEvent;
+
+import lombok.Data;
+
+@Data
+public class BatchItemResultDto {
+    private int index;
+    private boolean success;
+    private RuleEventDto event;
+    private String error;
+}
@@ -14,6 +14,9 @@ public class ListRuleEventRequest {
     private Integer page;
     private Integer size;
     private Integer offset;
+    private String after;
+    private String sort;
+    private String fields;
     private Optional<LocalDateTime> fromDate = Optional.empty();
     private Optional<LocalDateTime> toDate = Optional.empty();
 }
@@ -11,4 +11,5 @@ public class ListRuleEventsDto {
     private Integer size;
     private Integer offset;
     private Integer totalElements;
+    private String nextCursor;
 }
@@ -0,0 +1,10 @@
+package com.RulesILiveBy.dto.RuleEvent;
+
+import lombok.Data;
+
+@Data
+public class RuleEventBatchItemDto {
+    private String id;
+    private boolean found;
+    private RuleEventDto event;
+}
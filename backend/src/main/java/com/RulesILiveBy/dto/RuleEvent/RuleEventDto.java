@@ -16,4 +16,5 @@ public class RuleEventDto {
     private String emotion;
     private String note;
     private LocalDateTime occuredAt;
+    private Long version;
 }
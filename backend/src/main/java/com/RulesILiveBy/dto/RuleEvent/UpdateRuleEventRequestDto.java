@@ -12,4 +12,5 @@ public class UpdateRuleEventRequestDto {
     private Optional<String> context;
     private Optional<String> emotion;
     private Optional<String> note;
+    private Long version;
 }
@@ -0,0 +1,20 @@
+package com.RulesILiveBy.dto.export;
+
+import java.time.LocalDateTime;
+
+import com.RulesILiveBy.types.RuleStatusEnum;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import lombok.Data;
+
+// L'ordre fixe les colonnes de l'export CSV
+@Data
+@JsonPropertyOrder({ "id", "title", "description", "status", "createdAt", "updatedAt" })
+public class ExportRuleDto {
+    private String id;
+    private String title;
+    private String description;
+    private RuleStatusEnum status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
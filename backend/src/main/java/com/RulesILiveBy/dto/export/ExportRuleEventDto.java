@@ -0,0 +1,22 @@
+package com.RulesILiveBy.dto.export;
+
+import java.time.LocalDateTime;
+
+import com.RulesILiveBy.types.EventTypeEnum;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+import lombok.Data;
+
+// L'ordre fixe les colonnes de l'export CSV
+@Data
+@JsonPropertyOrder({ "id", "ruleId", "ruleTitle", "type", "context", "emotion", "note", "occurredAt" })
+public class ExportRuleEventDto {
+    private String id;
+    private String ruleId;
+    private String ruleTitle;
+    private EventTypeEnum type;
+    private String context;
+    private String emotion;
+    private String note;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,15 @@
+package com.RulesILiveBy.dto.export;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class ImportReportDto {
+    private long rulesImported;
+    private long rulesFailed;
+    private long eventsImported;
+    private long eventsFailed;
+    private List<String> errors = new ArrayList<>();
+}
@@ -0,0 +1,12 @@
+package com.RulesILiveBy.dto.rules;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchGetRulesDto {
+    private List<RuleBatchItemDto> results;
+    private int found;
+    private int missing;
+}
@@ -8,4 +8,5 @@ import lombok.Data;
 public class EditRuleRequestDto {
     private Optional<String> title = Optional.empty();;
     private Optional<String> description = Optional.empty();
+    private Long version;
 }
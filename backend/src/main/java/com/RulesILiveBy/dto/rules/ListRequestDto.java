@@ -13,6 +13,9 @@ public class ListRequestDto {
     private Integer page;
     private Integer size;
     private Integer offset;
+    private String after;
+    private String sort;
+    private String fields;
     private Optional<RuleStatusEnum> status = Optional.empty();
     private Optional<LocalDateTime> fromDate = Optional.empty();
     private Optional<LocalDateTime> toDate = Optional.empty();
@@ -13,4 +13,5 @@ public class ListRulesResponse {
     private Integer size;
     private Integer offset;
     private Integer totalElements;
+    private String nextCursor;
 }
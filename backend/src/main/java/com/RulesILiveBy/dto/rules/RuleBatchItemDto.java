@@ -0,0 +1,10 @@
+package com.RulesILiveBy.dto.rules;
+
+import lombok.Data;
+
+@Data
+public class RuleBatchItemDto {
+    private String id;
+    private boolean found;
+    private RuleResponse rule;
+}
@@ -0,0 +1,9 @@
+package com.RulesILiveBy.dto.rules;
+
+import lombok.Data;
+
+@Data
+public class RuleRankingDto {
+    private RuleResponse mostBroken;
+    private RuleResponse mostRespected;
+}
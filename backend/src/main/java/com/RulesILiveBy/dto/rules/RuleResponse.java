@@ -16,4 +16,8 @@ public class RuleResponse {
     private String description;
     private RuleStatusEnum status;
     private LocalDateTime createdAt;
+    private long respectedCount;
+    private long brokenCount;
+    private LocalDateTime lastEventAt;
+    private Long version;
 }
@@ -0,0 +1,13 @@
+package com.RulesILiveBy.dto.rules;
+
+import java.math.BigDecimal;
+
+import lombok.Data;
+
+@Data
+public class StatsPeriodDto {
+    private String period;
+    private long respectedCount;
+    private long brokenCount;
+    private BigDecimal taux;
+}
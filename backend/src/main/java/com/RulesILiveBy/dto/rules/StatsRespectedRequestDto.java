@@ -0,0 +1,14 @@
+package com.RulesILiveBy.dto.rules;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import lombok.Data;
+
+@Data
+public class StatsRespectedRequestDto {
+    private String userId;
+    private String ruleId;
+    private Optional<LocalDateTime> fromDate = Optional.empty();
+    private Optional<LocalDateTime> toDate = Optional.empty();
+}
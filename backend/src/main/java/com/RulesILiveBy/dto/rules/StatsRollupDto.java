@@ -0,0 +1,14 @@
+package com.RulesILiveBy.dto.rules;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class StatsRollupDto {
+    private List<StatsPeriodDto> periods;
+    private long respectedCount;
+    private long brokenCount;
+    private BigDecimal taux;
+}
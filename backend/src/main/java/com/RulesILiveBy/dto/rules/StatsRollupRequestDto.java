@@ -0,0 +1,17 @@
+package com.RulesILiveBy.dto.rules;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import com.RulesILiveBy.types.StatsGranularityEnum;
+
+import lombok.Data;
+
+@Data
+public class StatsRollupRequestDto {
+    private String userId;
+    private String ruleId;
+    private StatsGranularityEnum granularity = StatsGranularityEnum.DAY;
+    private Optional<LocalDateTime> fromDate = Optional.empty();
+    private Optional<LocalDateTime> toDate = Optional.empty();
+}
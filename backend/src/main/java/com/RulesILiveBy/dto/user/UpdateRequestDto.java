@@ -6,4 +6,5 @@ import lombok.Data;
 public class UpdateRequestDto {
     private String email = null;
     private String username = null;
+    private Long version;
 }
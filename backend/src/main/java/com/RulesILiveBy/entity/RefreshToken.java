@@ -0,0 +1,22 @@
+package com.RulesILiveBy.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "refreshTokens")
+public class RefreshToken {
+
+    @Id
+    private String id;
+    private String userId;
+    private String tokenHash;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+}
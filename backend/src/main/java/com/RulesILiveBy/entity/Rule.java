@@ -1,6 +1,7 @@
 package com.RulesILiveBy.entity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import com.RulesILiveBy.types.RuleStatusEnum;
 import lombok.Data;
@@ -21,6 +22,13 @@ public class Rule {
     private String description;
     private RuleStatusEnum status;
 
+    private long respectedCount;
+    private long brokenCount;
+    private LocalDateTime lastEventAt;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.RulesILiveBy.entity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import com.RulesILiveBy.types.EventTypeEnum;
 import lombok.Data;
@@ -23,4 +24,7 @@ public class RuleEvent {
     private String emotion;
     private String note;
     private LocalDateTime occurredAt;
+
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.RulesILiveBy.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "ruleEventDailyStats")
+public class RuleEventDailyStats {
+
+    @Id
+    private String id;
+    private String userId;
+    private String ruleId;
+    // Jour au format ISO (yyyy-MM-dd), dans le fuseau du serveur
+    private String day;
+    private long respectedCount;
+    private long brokenCount;
+}
@@ -1,6 +1,7 @@
 package com.RulesILiveBy.entity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,7 +20,9 @@ public class User {
     private String password;
     private String username;
     private boolean active;
-    private String refreshToken;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
-}
+
+    @Version
+    private Long version;
+}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.RulesILiveBy.migration;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@ChangeUnit(id = "002", author = "admin", order = "2", transactional = false)
+public class V002__CreateIndexes {
+
+    // Les index sont construits par IndexBuilder après le démarrage : dans un change unit, chaque
+    // construction bloquerait le démarrage (background() est ignoré depuis MongoDB 4.2).
+    // Ce change unit ne crée plus rien et reste enregistré pour l'historique Mongock :
+    // son rollback n'a donc rien à supprimer.
+    @Execution
+    public void execution(MongoTemplate mongoTemplate) {
+        System.out.println("Migration V002 executed (index construits par IndexBuilder)");
+    }
+
+    @RollbackExecution
+    public void rollback(MongoTemplate mongoTemplate) {
+        System.out.println("Migration V002 rolled back (aucun index a supprimer)");
+    }
+}
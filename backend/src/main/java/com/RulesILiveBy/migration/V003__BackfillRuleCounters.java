@@ -0,0 +1,104 @@
+package com.RulesILiveBy.migration;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.Sorts;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+
+@ChangeUnit(id = "003", author = "admin", order = "3", transactional = false)
+public class V003__BackfillRuleCounters {
+    private static final int BATCH_SIZE = 500;
+
+    @Execution
+    public void execution(MongoTemplate mongoTemplate) {
+        MongoCollection<Document> rules = mongoTemplate.getCollection("rules");
+        MongoCollection<Document> ruleEvents = mongoTemplate.getCollection("ruleEvents");
+
+        Object lastId = null;
+        long updatedRules = 0;
+
+        while (true) {
+            Bson filter = lastId == null ? new Document() : Filters.gt("_id", lastId);
+            List<Document> batch = rules.find(filter)
+                    .projection(Projections.include("_id"))
+                    .sort(Sorts.ascending("_id"))
+                    .limit(BATCH_SIZE)
+                    .into(new ArrayList<>());
+
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            List<String> ruleIds = new ArrayList<>();
+            batch.forEach(rule -> ruleIds.add(rule.get("_id").toString()));
+
+            Map<String, Document> countersByRule = new HashMap<>();
+            ruleEvents.aggregate(List.of(
+                    new Document("$match", new Document("ruleId", new Document("$in", ruleIds))),
+                    new Document("$group", new Document("_id", "$ruleId")
+                            .append("respectedCount", countOf("RESPECTED"))
+                            .append("brokenCount", countOf("BROKEN"))
+                            .append("lastEventAt", new Document("$max", "$occurredAt")))))
+                    .forEach(counters -> countersByRule.put(counters.getString("_id"), counters));
+
+            List<WriteModel<Document>> writes = new ArrayList<>();
+            for (Document rule : batch) {
+                Document counters = countersByRule.get(rule.get("_id").toString());
+                writes.add(new UpdateOneModel<>(
+                        Filters.eq("_id", rule.get("_id")),
+                        Updates.combine(
+                                Updates.set("respectedCount", counterValue(counters, "respectedCount")),
+                                Updates.set("brokenCount", counterValue(counters, "brokenCount")),
+                                Updates.set("lastEventAt", counters != null ? counters.get("lastEventAt") : null))));
+            }
+
+            rules.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+            updatedRules += batch.size();
+            lastId = batch.get(batch.size() - 1).get("_id");
+        }
+
+        // Les index rules_userId_brokenCount et rules_userId_respectedCount sont construits par IndexBuilder
+
+        System.out.println("Migration V003 executed (" + updatedRules + " rules)");
+    }
+
+    @RollbackExecution
+    public void rollback(MongoTemplate mongoTemplate) {
+        mongoTemplate.getCollection("rules").updateMany(new Document(), Updates.combine(
+                Updates.unset("respectedCount"),
+                Updates.unset("brokenCount"),
+                Updates.unset("lastEventAt")));
+        mongoTemplate.indexOps("rules").dropIndex("rules_userId_brokenCount");
+        mongoTemplate.indexOps("rules").dropIndex("rules_userId_respectedCount");
+        System.out.println("Migration V003 rolled back");
+    }
+
+    private static Document countOf(String type) {
+        return new Document("$sum", new Document("$cond", List.of(
+                new Document("$eq", List.of("$type", type)), 1, 0)));
+    }
+
+    private static long counterValue(Document counters, String field) {
+        if (counters == null) {
+            return 0;
+        }
+        return counters.get(field, Number.class).longValue();
+    }
+}
@@ -0,0 +1,41 @@
+package com.RulesILiveBy.migration;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+@ChangeUnit(id = "004", author = "admin", order = "4", transactional = false)
+public class V004__CreateRuleEventDailyStats {
+
+    @Execution
+    public void execution(MongoTemplate mongoTemplate) {
+        if (!mongoTemplate.collectionExists("ruleEventDailyStats")) {
+            mongoTemplate.createCollection("ruleEventDailyStats");
+        }
+
+        // Construction bloquante mais immédiate : la collection vient d'être créée, et l'index unique
+        // doit exister avant les premiers upserts et le $merge de reconstruction
+        mongoTemplate.indexOps("ruleEventDailyStats").createIndex(new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("ruleId", Sort.Direction.ASC)
+                .on("day", Sort.Direction.ASC)
+                .named("ruleEventDailyStats_userId_ruleId_day")
+                .unique());
+        mongoTemplate.indexOps("ruleEventDailyStats").createIndex(new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("day", Sort.Direction.ASC)
+                .named("ruleEventDailyStats_userId_day"));
+
+        System.out.println("Migration V004 executed");
+    }
+
+    @RollbackExecution
+    public void rollback(MongoTemplate mongoTemplate) {
+        mongoTemplate.dropCollection("ruleEventDailyStats");
+        System.out.println("Migration V004 rolled back");
+    }
+}
@@ -0,0 +1,43 @@
+package com.RulesILiveBy.migration;
+
+import io.mongock.api.annotations.ChangeUnit;
+import io.mongock.api.annotations.Execution;
+import io.mongock.api.annotations.RollbackExecution;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+
+import com.mongodb.client.model.Updates;
+
+@ChangeUnit(id = "005", author = "admin", order = "5", transactional = false)
+public class V005__CreateRefreshTokens {
+
+    @Execution
+    public void execution(MongoTemplate mongoTemplate) {
+        if (!mongoTemplate.collectionExists("refreshTokens")) {
+            mongoTemplate.createCollection("refreshTokens");
+        }
+
+        mongoTemplate.indexOps("refreshTokens").createIndex(new Index()
+                .on("tokenHash", Sort.Direction.ASC)
+                .named("refreshTokens_tokenHash")
+                .unique());
+        mongoTemplate.indexOps("refreshTokens").createIndex(new Index()
+                .on("expiresAt", Sort.Direction.ASC)
+                .named("refreshTokens_expiresAt_ttl")
+                .expire(0));
+
+        // Les anciens tokens stockés sur l'utilisateur ne sont plus lus : les sessions existantes devront se reconnecter
+        mongoTemplate.getCollection("users").updateMany(new Document(), Updates.unset("refreshToken"));
+
+        System.out.println("Migration V005 executed");
+    }
+
+    @RollbackExecution
+    public void rollback(MongoTemplate mongoTemplate) {
+        mongoTemplate.dropCollection("refreshTokens");
+        System.out.println("Migration V005 rolled back");
+    }
+}
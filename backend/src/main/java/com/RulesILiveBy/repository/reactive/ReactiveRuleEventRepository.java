@@ -0,0 +1,9 @@
+package com.RulesILiveBy.repository.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import com.RulesILiveBy.entity.RuleEvent;
+
+@Repository
+public interface ReactiveRuleEventRepository extends ReactiveMongoRepository<RuleEvent, String> {
+}
@@ -2,23 +2,29 @@
 package com.RulesILiveBy.security;
 
 import com.RulesILiveBy.utils.JwtUtil;
+import com.RulesILiveBy.utils.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final Set<String> adminUserIds;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, Set<String> adminUserIds) {
         this.jwtUtil = jwtUtil;
+        this.adminUserIds = adminUserIds;
     }
 
     @Override
@@ -26,21 +32,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        try {
-            String token = getTokenFromCookie(request);
+        String token = getTokenFromCookie(request);
 
-            if (token != null && jwtUtil.isTokenValid(token)) {
-                String userId = jwtUtil.getUserIdFromToken(token);
+        if (token != null) {
+            try {
+                VerifiedToken verified = jwtUtil.verify(token);
 
+                // ROLE_ADMIN réservé aux utilisateurs listés dans security.admin-user-ids (endpoints actuator)
+                List<SimpleGrantedAuthority> authorities = adminUserIds.contains(verified.getUserId())
+                        ? List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))
+                        : List.of();
                 UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                        userId,
+                        verified.getUserId(),
                         null,
-                        null);
+                        authorities);
 
                 SecurityContextHolder.getContext().setAuthentication(auth);
+            } catch (RuntimeException e) {
+                logger.debug("Token d'accès rejeté : " + e.getMessage());
             }
-        } catch (Exception e) {
-            e.printStackTrace();
         }
 
         filterChain.doFilter(request, response);
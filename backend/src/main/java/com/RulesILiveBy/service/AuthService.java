@@ -1,5 +1,6 @@
 package com.RulesILiveBy.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -8,6 +9,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.RulesILiveBy.dao.RefreshTokenDao;
 import com.RulesILiveBy.dao.UserDao;
 import com.RulesILiveBy.dto.auth.CreateUserDto;
 import com.RulesILiveBy.dto.auth.LoginDto;
@@ -20,11 +22,14 @@ import jakarta.servlet.http.HttpServletResponse;
 @Service
 public class AuthService {
     private final UserDao userDao;
+    private final RefreshTokenDao refreshTokenDao;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
 
-    public AuthService(UserDao userDao, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthService(UserDao userDao, RefreshTokenDao refreshTokenDao, PasswordEncoder passwordEncoder,
+            JwtUtil jwtUtil) {
         this.userDao = userDao;
+        this.refreshTokenDao = refreshTokenDao;
         this.passwordEncoder = passwordEncoder;
         this.jwtUtil = jwtUtil;
     }
@@ -46,12 +51,9 @@ public class AuthService {
 
         User savedUser = userDao.save(user);
 
-        String refreshToken = jwtUtil.generateRefreshToken(savedUser);
+        String refreshToken = issueRefreshToken(savedUser.getId());
         String accessToken = jwtUtil.generateJwtToken(savedUser);
 
-        savedUser.setRefreshToken(refreshToken);
-        userDao.save(savedUser);
-
         setRefreshTokenCookie(response, refreshToken);
         setAccessTokenCookie(response, accessToken);
 
@@ -76,12 +78,9 @@ public class AuthService {
             throw new RuntimeException("Invalid email or password");
         }
 
-        String refreshToken = jwtUtil.generateRefreshToken(existingUser);
+        String refreshToken = issueRefreshToken(existingUser.getId());
         String accessToken = jwtUtil.generateJwtToken(existingUser);
 
-        existingUser.setRefreshToken(refreshToken);
-        userDao.save(existingUser);
-
         setRefreshTokenCookie(response, refreshToken);
         setAccessTokenCookie(response, accessToken);
 
@@ -96,28 +95,11 @@ public class AuthService {
     public String refresh(String refreshToken, HttpServletResponse response) {
         String userId = jwtUtil.validateTokenAndGetUserId(refreshToken);
 
-        Optional<User> userOpt = userDao.findById(userId);
-
-        if (userOpt.isEmpty()) {
-            throw new RuntimeException("User not found");
-        }
-
-        User user = userOpt.get();
-        String storedRefreshToken = user.getRefreshToken();
-
-        if (storedRefreshToken == null || !storedRefreshToken.equals(refreshToken)) {
-            throw new RuntimeException("Invalid refresh token");
-        }
-
-        if (!jwtUtil.isTokenValid(refreshToken)) {
-            throw new RuntimeException("Refresh token expired");
-        }
-
-        String newAccessToken = jwtUtil.generateJwtToken(user);
-        String newRefreshToken = jwtUtil.generateRefreshToken(user);
+        String newAccessToken = jwtUtil.generateJwtToken(userId);
+        String newRefreshToken = jwtUtil.generateRefreshToken(userId);
 
-        user.setRefreshToken(newRefreshToken);
-        userDao.save(user);
+        refreshTokenDao.rotate(userId, refreshToken, newRefreshToken, refreshTokenExpiration())
+                .orElseThrow(() -> new RuntimeException("Invalid refresh token"));
 
         setRefreshTokenCookie(response, newRefreshToken);
         setAccessTokenCookie(response, newAccessToken);
@@ -127,20 +109,18 @@ public class AuthService {
 
     @Transactional
     public void logout(String refreshToken, HttpServletResponse response) {
-        String userId = jwtUtil.validateTokenAndGetUserId(refreshToken);
-
-        Optional<User> userOpt = userDao.findById(userId);
-
-        if (userOpt.isEmpty()) {
-            throw new RuntimeException("User not found");
-        }
-
-        User user = userOpt.get();
+        refreshTokenDao.delete(refreshToken);
+        clearCookies(response);
+    }
 
-        user.setRefreshToken(null);
-        userDao.save(user);
+    private String issueRefreshToken(String userId) {
+        String refreshToken = jwtUtil.generateRefreshToken(userId);
+        refreshTokenDao.store(userId, refreshToken, refreshTokenExpiration());
+        return refreshToken;
+    }
 
-        clearCookies(response);
+    private LocalDateTime refreshTokenExpiration() {
+        return LocalDateTime.now().plus(Duration.ofMillis(JwtUtil.REFRESH_TOKEN_VALIDITY_MS));
     }
 
     private void setRefreshTokenCookie(HttpServletResponse response, String token) {
@@ -0,0 +1,136 @@
+package com.RulesILiveBy.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+
+import com.RulesILiveBy.dao.ExportDao;
+import com.RulesILiveBy.dto.export.ExportRuleDto;
+import com.RulesILiveBy.dto.export.ExportRuleEventDto;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.types.ExportFormatEnum;
+import com.RulesILiveBy.utils.CsvUtil;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+
+@Service
+public class ExportService {
+    private static final int RULE_TITLE_CACHE_SIZE = 1000;
+
+    private final ExportDao exportDao;
+    private final ObjectMapper objectMapper;
+
+    public ExportService(ExportDao exportDao, ObjectMapper objectMapper) {
+        this.exportDao = exportDao;
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportRules(String userId, ExportFormatEnum format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        SequenceWriter csvRows = format == ExportFormatEnum.CSV ? openCsv(ExportRuleDto.class, writer) : null;
+
+        try (Stream<Rule> rules = exportDao.streamRules(userId)) {
+            Iterator<Rule> iterator = rules.iterator();
+            while (iterator.hasNext()) {
+                writeRow(toExportRule(iterator.next()), csvRows, writer);
+            }
+        }
+
+        if (csvRows != null) {
+            csvRows.flush();
+        }
+        writer.flush();
+    }
+
+    public void exportRuleEvents(String userId, ExportFormatEnum format, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        SequenceWriter csvRows = format == ExportFormatEnum.CSV ? openCsv(ExportRuleEventDto.class, writer) : null;
+        Map<String, String> ruleTitles = boundedTitleCache();
+
+        try (Stream<RuleEvent> events = exportDao.streamRuleEvents(userId)) {
+            Iterator<RuleEvent> iterator = events.iterator();
+            while (iterator.hasNext()) {
+                writeRow(toExportRuleEvent(iterator.next(), ruleTitles), csvRows, writer);
+            }
+        }
+
+        if (csvRows != null) {
+            csvRows.flush();
+        }
+        writer.flush();
+    }
+
+    // CSV écrit par jackson-dataformat-csv avec le même mapper que l'import : l'en-tête est écrit à l'ouverture
+    private static SequenceWriter openCsv(Class<?> type, Writer writer) {
+        return CsvUtil.mapper().writerFor(type).with(CsvUtil.schemaFor(type)).writeValues(writer);
+    }
+
+    // Ligne CSV si csvRows est ouvert, sinon une ligne NDJSON
+    private void writeRow(Object row, SequenceWriter csvRows, Writer writer) throws IOException {
+        if (csvRows != null) {
+            csvRows.write(row);
+        } else {
+            writer.write(objectMapper.writeValueAsString(row));
+            writer.write('\n');
+        }
+    }
+
+    private ExportRuleDto toExportRule(Rule rule) {
+        ExportRuleDto row = new ExportRuleDto();
+        row.setId(rule.getId());
+        row.setTitle(rule.getTitle());
+        row.setDescription(rule.getDescription());
+        row.setStatus(rule.getStatus());
+        row.setCreatedAt(rule.getCreatedAt());
+        row.setUpdatedAt(rule.getUpdatedAt());
+        return row;
+    }
+
+    private ExportRuleEventDto toExportRuleEvent(RuleEvent event, Map<String, String> ruleTitles) {
+        ExportRuleEventDto row = new ExportRuleEventDto();
+        row.setId(event.getId());
+        row.setRuleId(event.getRuleId());
+        row.setRuleTitle(resolveRuleTitle(event.getRuleId(), ruleTitles));
+        row.setType(event.getType());
+        row.setContext(event.getContext());
+        row.setEmotion(event.getEmotion());
+        row.setNote(event.getNote());
+        row.setOccurredAt(event.getOccurredAt());
+        return row;
+    }
+
+    private String resolveRuleTitle(String ruleId, Map<String, String> ruleTitles) {
+        if (ruleId == null) {
+            return null;
+        }
+
+        // Les règles absentes sont mémorisées avec un titre vide pour ne pas être recherchées à chaque ligne
+        String title = ruleTitles.get(ruleId);
+        if (title == null) {
+            String found = exportDao.findRuleTitle(ruleId);
+            title = found != null ? found : "";
+            ruleTitles.put(ruleId, title);
+        }
+        return title.isEmpty() ? null : title;
+    }
+
+    private static Map<String, String> boundedTitleCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > RULE_TITLE_CACHE_SIZE;
+            }
+        };
+    }
+}
@@ -0,0 +1,346 @@
+package com.RulesILiveBy.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import com.RulesILiveBy.dao.ImportDao;
+import com.RulesILiveBy.dao.RuleDao;
+import com.RulesILiveBy.dao.RuleEventDailyStatsDao;
+import com.RulesILiveBy.dto.RuleEvent.CreateRuleEventRequestDto;
+import com.RulesILiveBy.dto.export.ExportRuleDto;
+import com.RulesILiveBy.dto.export.ExportRuleEventDto;
+import com.RulesILiveBy.dto.export.ImportReportDto;
+import com.RulesILiveBy.dto.rules.CreateRuleRequestDto;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.types.ExportFormatEnum;
+import com.RulesILiveBy.types.RuleStatusEnum;
+import com.RulesILiveBy.utils.BoundedRecordInputStream;
+import com.RulesILiveBy.utils.CsvUtil;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DatabindException;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.csv.CsvMapper;
+import tools.jackson.dataformat.csv.CsvSchema;
+
+@Service
+public class ImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ImportService.class);
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final ImportDao importDao;
+    private final RuleDao ruleDao;
+    private final RuleEventDailyStatsDao ruleEventDailyStatsDao;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final int batchSize;
+    private final long maxRecordBytes;
+
+    public ImportService(
+            ImportDao importDao,
+            RuleDao ruleDao,
+            RuleEventDailyStatsDao ruleEventDailyStatsDao,
+            ObjectMapper objectMapper,
+            @Value("${import.batch-size:1000}") int batchSize,
+            @Value("${import.max-record-size:1MB}") DataSize maxRecordSize) {
+        this.importDao = importDao;
+        this.ruleDao = ruleDao;
+        this.ruleEventDailyStatsDao = ruleEventDailyStatsDao;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvUtil.mapper();
+        this.batchSize = batchSize;
+        this.maxRecordBytes = maxRecordSize.toBytes();
+    }
+
+    // Les règles sont importées en premier pour connaître la correspondance entre anciens et nouveaux ids
+    public ImportReportDto importData(String userId, ExportFormatEnum format, InputStream rules,
+            InputStream ruleEvents) throws IOException {
+        ImportReportDto report = new ImportReportDto();
+        Map<String, String> ruleIdMapping = new HashMap<>();
+
+        if (rules != null) {
+            importRules(userId, format, rules, ruleIdMapping, report);
+        }
+        if (ruleEvents != null) {
+            importRuleEvents(userId, format, ruleEvents, ruleIdMapping, report);
+        }
+
+        logger.info("Import terminé pour {} : {} règles, {} événements, {} erreurs",
+                userId, report.getRulesImported(), report.getEventsImported(),
+                report.getRulesFailed() + report.getEventsFailed());
+        return report;
+    }
+
+    private void importRules(String userId, ExportFormatEnum format, InputStream input,
+            Map<String, String> ruleIdMapping, ImportReportDto report) {
+        List<Rule> batch = new ArrayList<>();
+        List<String> batchOldIds = new ArrayList<>();
+        List<Long> batchRecordNumbers = new ArrayList<>();
+
+        RecordSource<ExportRuleDto> source = openSource(format, input, ExportRuleDto.class);
+        long recordNumber = 0;
+
+        while (true) {
+            ExportRuleDto row;
+            recordNumber++;
+            try {
+                row = source.next();
+            } catch (JacksonException e) {
+                report.setRulesFailed(report.getRulesFailed() + 1);
+                addError(report, "rules", recordNumber, source.describe(e));
+                if (source.isBroken(e)) {
+                    break;
+                }
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+
+            CreateRuleRequestDto request = new CreateRuleRequestDto();
+            request.setUserId(userId);
+            request.setTitle(row.getTitle());
+            request.setDescription(row.getDescription());
+
+            if (request.getTitle() == null || request.getTitle().isBlank()) {
+                report.setRulesFailed(report.getRulesFailed() + 1);
+                addError(report, "rules", recordNumber, "title ne peut pas être vide");
+                continue;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            Rule rule = new Rule();
+            rule.setId(new ObjectId().toHexString());
+            rule.setUserId(request.getUserId());
+            rule.setTitle(request.getTitle());
+            rule.setDescription(request.getDescription());
+            rule.setStatus(row.getStatus() != null ? row.getStatus() : RuleStatusEnum.ACTIVE);
+            rule.setCreatedAt(row.getCreatedAt() != null ? row.getCreatedAt() : now);
+            rule.setUpdatedAt(row.getUpdatedAt() != null ? row.getUpdatedAt() : now);
+            rule.setVersion(0L);
+
+            if (row.getId() != null) {
+                ruleIdMapping.put(row.getId(), rule.getId());
+            }
+            batch.add(rule);
+            batchOldIds.add(row.getId());
+            batchRecordNumbers.add(recordNumber);
+
+            if (batch.size() >= batchSize) {
+                flushRules(batch, batchOldIds, batchRecordNumbers, ruleIdMapping, report);
+            }
+        }
+
+        flushRules(batch, batchOldIds, batchRecordNumbers, ruleIdMapping, report);
+    }
+
+    private void flushRules(List<Rule> batch, List<String> batchOldIds, List<Long> batchRecordNumbers,
+            Map<String, String> ruleIdMapping, ImportReportDto report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, String> errors = importDao.insertUnordered(batch, Rule.class);
+        errors.forEach((index, message) -> {
+            if (batchOldIds.get(index) != null) {
+                ruleIdMapping.remove(batchOldIds.get(index));
+            }
+            addError(report, "rules", batchRecordNumbers.get(index), message);
+        });
+
+        report.setRulesImported(report.getRulesImported() + batch.size() - errors.size());
+        report.setRulesFailed(report.getRulesFailed() + errors.size());
+        logger.info("Import : {} règles importées", report.getRulesImported());
+
+        batch.clear();
+        batchOldIds.clear();
+        batchRecordNumbers.clear();
+    }
+
+    private void importRuleEvents(String userId, ExportFormatEnum format, InputStream input,
+            Map<String, String> ruleIdMapping, ImportReportDto report) {
+        List<RuleEvent> batch = new ArrayList<>();
+        List<Long> batchRecordNumbers = new ArrayList<>();
+
+        Set<String> knownRuleIds = new HashSet<>(ruleIdMapping.values());
+        RecordSource<ExportRuleEventDto> source = openSource(format, input, ExportRuleEventDto.class);
+        long recordNumber = 0;
+
+        while (true) {
+            ExportRuleEventDto row;
+            recordNumber++;
+            try {
+                row = source.next();
+            } catch (JacksonException e) {
+                report.setEventsFailed(report.getEventsFailed() + 1);
+                addError(report, "ruleEvents", recordNumber, source.describe(e));
+                if (source.isBroken(e)) {
+                    break;
+                }
+                continue;
+            }
+            if (row == null) {
+                break;
+            }
+
+            // Règle importée dans le même envoi, sinon règle existante de l'utilisateur, vérifiée au flush
+            CreateRuleEventRequestDto request = new CreateRuleEventRequestDto();
+            request.setUserId(userId);
+            request.setRuleId(row.getRuleId() != null
+                    ? ruleIdMapping.getOrDefault(row.getRuleId(), row.getRuleId())
+                    : null);
+            request.setType(row.getType());
+            request.setContext(row.getContext());
+            request.setEmotion(row.getEmotion());
+            request.setNote(row.getNote());
+
+            if (request.getRuleId() == null) {
+                report.setEventsFailed(report.getEventsFailed() + 1);
+                addError(report, "ruleEvents", recordNumber, "ruleId ne peut pas être vide");
+                continue;
+            }
+            if (request.getType() == null) {
+                report.setEventsFailed(report.getEventsFailed() + 1);
+                addError(report, "ruleEvents", recordNumber, "type ne peut pas être vide");
+                continue;
+            }
+
+            RuleEvent ruleEvent = new RuleEvent();
+            ruleEvent.setId(new ObjectId().toHexString());
+            ruleEvent.setUserId(request.getUserId());
+            ruleEvent.setRuleId(request.getRuleId());
+            ruleEvent.setType(request.getType());
+            ruleEvent.setContext(request.getContext());
+            ruleEvent.setEmotion(request.getEmotion());
+            ruleEvent.setNote(request.getNote());
+            ruleEvent.setOccurredAt(row.getOccurredAt() != null ? row.getOccurredAt() : LocalDateTime.now());
+            ruleEvent.setVersion(0L);
+
+            batch.add(ruleEvent);
+            batchRecordNumbers.add(recordNumber);
+
+            if (batch.size() >= batchSize) {
+                flushRuleEvents(userId, batch, batchRecordNumbers, knownRuleIds, report);
+            }
+        }
+
+        flushRuleEvents(userId, batch, batchRecordNumbers, knownRuleIds, report);
+    }
+
+    private void flushRuleEvents(String userId, List<RuleEvent> batch, List<Long> batchRecordNumbers,
+            Set<String> knownRuleIds, ImportReportDto report) {
+        rejectUnknownRules(userId, batch, batchRecordNumbers, knownRuleIds, report);
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Insertion et compteurs sous le verrou de l'utilisateur, comme une création d'événement
+        List<RuleEvent> inserted = new ArrayList<>();
+        Map<Integer, String> errors = ruleEventDailyStatsDao.withUserCounters(List.of(userId), () -> {
+            Map<Integer, String> insertErrors = importDao.insertUnordered(batch, RuleEvent.class);
+            for (int i = 0; i < batch.size(); i++) {
+                if (!insertErrors.containsKey(i)) {
+                    inserted.add(batch.get(i));
+                }
+            }
+
+            ruleDao.recordEvents(inserted);
+            ruleEventDailyStatsDao.recordEvents(inserted);
+            return insertErrors;
+        });
+        errors.forEach((index, message) -> addError(report, "ruleEvents", batchRecordNumbers.get(index), message));
+
+        report.setEventsImported(report.getEventsImported() + inserted.size());
+        report.setEventsFailed(report.getEventsFailed() + errors.size());
+        logger.info("Import : {} événements importés", report.getEventsImported());
+
+        batch.clear();
+        batchRecordNumbers.clear();
+    }
+
+    // Un seul $in par lot pour les ruleId qui ne viennent pas de cet import ; les règles d'un autre utilisateur sont refusées
+    private void rejectUnknownRules(String userId, List<RuleEvent> batch, List<Long> batchRecordNumbers,
+            Set<String> knownRuleIds, ImportReportDto report) {
+        Set<String> unresolved = new HashSet<>();
+        for (RuleEvent event : batch) {
+            if (!knownRuleIds.contains(event.getRuleId())) {
+                unresolved.add(event.getRuleId());
+            }
+        }
+        if (unresolved.isEmpty()) {
+            return;
+        }
+
+        knownRuleIds.addAll(ruleDao.findOwnedRuleIds(userId, unresolved));
+
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (!knownRuleIds.contains(batch.get(i).getRuleId())) {
+                addError(report, "ruleEvents", batchRecordNumbers.get(i), "règle inconnue : " + batch.get(i).getRuleId());
+                report.setEventsFailed(report.getEventsFailed() + 1);
+                batch.remove(i);
+                batchRecordNumbers.remove(i);
+            }
+        }
+    }
+
+    private void addError(ImportReportDto report, String source, long recordNumber, String message) {
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(source + " #" + recordNumber + " : " + message);
+        }
+    }
+
+    // Lecture en flux par Jackson (NDJSON ou CSV avec en-tête), un enregistrement à la fois et de taille bornée
+    private <T> RecordSource<T> openSource(ExportFormatEnum format, InputStream input, Class<T> type) {
+        BoundedRecordInputStream bounded = new BoundedRecordInputStream(input, maxRecordBytes);
+        MappingIterator<T> iterator = format == ExportFormatEnum.CSV
+                ? csvMapper.readerFor(type).with(CsvSchema.emptySchema().withHeader()).readValues(bounded)
+                : objectMapper.readerFor(type).readValues(bounded);
+
+        return new RecordSource<>() {
+            @Override
+            public T next() {
+                bounded.nextRecord();
+                return iterator.hasNextValue() ? iterator.nextValue() : null;
+            }
+
+            // Une erreur de liaison (type, enum, date) laisse le flux lisible ; une erreur de syntaxe
+            // ou un enregistrement trop volumineux interrompt la lecture de ce fichier
+            @Override
+            public boolean isBroken(JacksonException e) {
+                return bounded.isExceeded() || !(e instanceof DatabindException);
+            }
+
+            @Override
+            public String describe(JacksonException e) {
+                if (bounded.isExceeded()) {
+                    return "enregistrement de plus de " + maxRecordBytes + " octets, lecture interrompue";
+                }
+                return isBroken(e) ? "flux illisible, lecture interrompue" : "enregistrement illisible";
+            }
+        };
+    }
+
+    private interface RecordSource<T> {
+        T next();
+
+        boolean isBroken(JacksonException e);
+
+        String describe(JacksonException e);
+    }
+}
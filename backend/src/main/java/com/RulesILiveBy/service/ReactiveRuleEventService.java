@@ -0,0 +1,37 @@
+package com.RulesILiveBy.service;
+
+import org.springframework.stereotype.Service;
+
+import com.RulesILiveBy.dao.ReactiveRuleEventDao;
+import com.RulesILiveBy.dto.RuleEvent.ListRuleEventRequest;
+import com.RulesILiveBy.dto.RuleEvent.RuleEventDto;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveRuleEventService {
+    private final ReactiveRuleEventDao reactiveRuleEventDao;
+
+    public ReactiveRuleEventService(ReactiveRuleEventDao reactiveRuleEventDao) {
+        this.reactiveRuleEventDao = reactiveRuleEventDao;
+    }
+
+    public Flux<RuleEventDto> list(ListRuleEventRequest request) {
+        return Flux.defer(() -> {
+            if (request.getUserId() == null || request.getUserId().isEmpty()) {
+                return Flux.error(new RuntimeException("userId ne peut pas être vide"));
+            }
+            return reactiveRuleEventDao.list(request);
+        });
+    }
+
+    public Mono<RuleEventDto> getOne(String id) {
+        return Mono.defer(() -> {
+            if (id == null || id.isEmpty()) {
+                return Mono.error(new RuntimeException("id ne peut pas être vide"));
+            }
+            return reactiveRuleEventDao.getOne(id);
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package com.RulesILiveBy.service;
+
+import org.springframework.stereotype.Service;
+
+import com.RulesILiveBy.dao.ReactiveRuleDao;
+import com.RulesILiveBy.dto.rules.ListRequestDto;
+import com.RulesILiveBy.dto.rules.RuleResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveRuleService {
+    private final ReactiveRuleDao reactiveRuleDao;
+
+    public ReactiveRuleService(ReactiveRuleDao reactiveRuleDao) {
+        this.reactiveRuleDao = reactiveRuleDao;
+    }
+
+    public Flux<RuleResponse> list(ListRequestDto request) {
+        return Flux.defer(() -> {
+            if (request.getUserId() == null || request.getUserId().isEmpty()) {
+                return Flux.error(new RuntimeException("userId ne peut pas être vide"));
+            }
+            return reactiveRuleDao.list(request);
+        });
+    }
+
+    public Mono<RuleResponse> getOne(String id) {
+        return Mono.defer(() -> {
+            if (id == null || id.isEmpty()) {
+                return Mono.error(new RuntimeException("id ne peut pas être vide"));
+            }
+            return reactiveRuleDao.getOne(id);
+        });
+    }
+}
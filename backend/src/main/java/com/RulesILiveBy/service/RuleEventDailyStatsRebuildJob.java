@@ -0,0 +1,104 @@
+package com.RulesILiveBy.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.RulesILiveBy.dao.RuleEventDailyStatsDao;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.entity.RuleEventDailyStats;
+
+@Component
+public class RuleEventDailyStatsRebuildJob {
+    private static final Logger logger = LoggerFactory.getLogger(RuleEventDailyStatsRebuildJob.class);
+
+    private final RuleEventDailyStatsDao ruleEventDailyStatsDao;
+    private final MongoTemplate mongoTemplate;
+    private final boolean rebuildOnStartup;
+    private final int threads;
+    private final int usersPerChunk;
+    private final boolean virtualThreads;
+
+    public RuleEventDailyStatsRebuildJob(
+            RuleEventDailyStatsDao ruleEventDailyStatsDao,
+            MongoTemplate mongoTemplate,
+            @Value("${stats.rollup.rebuild-on-startup:false}") boolean rebuildOnStartup,
+            @Value("${stats.rollup.rebuild-threads:4}") int threads,
+            @Value("${stats.rollup.rebuild-users-per-chunk:100}") int usersPerChunk,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.ruleEventDailyStatsDao = ruleEventDailyStatsDao;
+        this.mongoTemplate = mongoTemplate;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.threads = threads;
+        this.usersPerChunk = usersPerChunk;
+        this.virtualThreads = virtualThreads;
+    }
+
+    // Lancée en arrière-plan : la disponibilité de l'application n'attend pas la reconstruction,
+    // et un échec est journalisé sans interrompre le démarrage
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartupIfNeeded() {
+        Thread.ofPlatform()
+                .name("stats-rollup-rebuild")
+                .daemon()
+                .start(() -> {
+                    try {
+                        boolean rollupsMissing = !mongoTemplate.exists(new Query(), RuleEventDailyStats.class)
+                                && mongoTemplate.exists(new Query(), RuleEvent.class);
+
+                        if (rebuildOnStartup || rollupsMissing) {
+                            rebuild();
+                        }
+                    } catch (RuntimeException e) {
+                        logger.error("Reconstruction des agrégats au démarrage en échec", e);
+                    }
+                });
+    }
+
+    // Reconstruit les agrégats journaliers à partir de ruleEvents, par lots d'utilisateurs en parallèle
+    public int rebuild() {
+        List<String> userIds = mongoTemplate.findDistinct(new Query(), "userId", RuleEvent.class, String.class);
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < userIds.size(); i += usersPerChunk) {
+            chunks.add(userIds.subList(i, Math.min(i + usersPerChunk, userIds.size())));
+        }
+
+        // En mode threads virtuels, un thread par lot : le pool Mongo borne la concurrence réelle
+        ExecutorService executor = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(Math.max(1, threads));
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (List<String> chunk : chunks) {
+                results.add(executor.submit(() -> ruleEventDailyStatsDao.rebuildUsers(chunk)));
+            }
+
+            int buckets = 0;
+            for (Future<Integer> result : results) {
+                buckets += result.get();
+            }
+
+            logger.info("Agrégats journaliers reconstruits : {} utilisateurs, {} jours", userIds.size(), buckets);
+            return buckets;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reconstruction des agrégats interrompue", e);
+        } catch (Exception e) {
+            throw new RuntimeException("Échec de la reconstruction des agrégats", e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
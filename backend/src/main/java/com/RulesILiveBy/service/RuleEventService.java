@@ -1,8 +1,13 @@
 package com.RulesILiveBy.service;
 
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.RulesILiveBy.dao.RuleEventDao;
+import com.RulesILiveBy.dto.RuleEvent.BatchCreateRuleEventsDto;
+import com.RulesILiveBy.dto.RuleEvent.BatchGetRuleEventsDto;
 import com.RulesILiveBy.dto.RuleEvent.CreateRuleEventRequestDto;
 import com.RulesILiveBy.dto.RuleEvent.ListRuleEventRequest;
 import com.RulesILiveBy.dto.RuleEvent.ListRuleEventsDto;
@@ -12,9 +17,16 @@ import com.RulesILiveBy.dto.RuleEvent.UpdateRuleEventRequestDto;
 @Service
 public class RuleEventService {
     private final RuleEventDao ruleEventDao;
+    private final int batchMaxSize;
+    private final int batchGetMaxIds;
 
-    public RuleEventService(RuleEventDao ruleEventDao) {
+    public RuleEventService(
+            RuleEventDao ruleEventDao,
+            @Value("${rule-events.batch.max-size:500}") int batchMaxSize,
+            @Value("${batch-get.max-ids:200}") int batchGetMaxIds) {
         this.ruleEventDao = ruleEventDao;
+        this.batchMaxSize = batchMaxSize;
+        this.batchGetMaxIds = batchGetMaxIds;
     }
 
     public ListRuleEventsDto list(ListRuleEventRequest request) {
@@ -25,10 +37,30 @@ public class RuleEventService {
         return ruleEventDao.getOne(id);
     }
 
+    public BatchGetRuleEventsDto getBatch(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("ids ne peut pas être vide");
+        }
+        if (ids.size() > batchGetMaxIds) {
+            throw new RuntimeException("ids ne peut pas dépasser " + batchGetMaxIds + " éléments");
+        }
+        return ruleEventDao.getBatch(ids);
+    }
+
     public RuleEventDto create(CreateRuleEventRequestDto request) {
         return ruleEventDao.create(request);
     }
 
+    public BatchCreateRuleEventsDto createBatch(List<CreateRuleEventRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new RuntimeException("Le lot d'événements ne peut pas être vide");
+        }
+        if (requests.size() > batchMaxSize) {
+            throw new RuntimeException("Le lot ne peut pas dépasser " + batchMaxSize + " événements");
+        }
+        return ruleEventDao.createBatch(requests);
+    }
+
     public RuleEventDto update(String id, UpdateRuleEventRequestDto request) {
         return ruleEventDao.update(id, request);
     }
@@ -1,24 +1,39 @@
 package com.RulesILiveBy.service;
 
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.RulesILiveBy.dao.RuleDao;
+import com.RulesILiveBy.dao.RuleEventDailyStatsDao;
+import com.RulesILiveBy.dto.rules.BatchGetRulesDto;
 import com.RulesILiveBy.dto.rules.CreateRuleRequestDto;
 import com.RulesILiveBy.dto.rules.EditRuleRequestDto;
 import com.RulesILiveBy.dto.rules.ListRequestDto;
 import com.RulesILiveBy.dto.rules.ListRulesResponse;
+import com.RulesILiveBy.dto.rules.RuleRankingDto;
 import com.RulesILiveBy.dto.rules.RuleResponse;
 import com.RulesILiveBy.dto.rules.StatsRespectedDto;
+import com.RulesILiveBy.dto.rules.StatsRespectedRequestDto;
+import com.RulesILiveBy.dto.rules.StatsRollupDto;
+import com.RulesILiveBy.dto.rules.StatsRollupRequestDto;
 import com.RulesILiveBy.utils.JwtUtil;
 
 @Service
 public class RuleService {
     private final RuleDao ruleDao;
+    private final RuleEventDailyStatsDao ruleEventDailyStatsDao;
+    private final int batchGetMaxIds;
 
-    public RuleService(RuleDao ruleDao, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public RuleService(RuleDao ruleDao, RuleEventDailyStatsDao ruleEventDailyStatsDao,
+            PasswordEncoder passwordEncoder, JwtUtil jwtUtil,
+            @Value("${batch-get.max-ids:200}") int batchGetMaxIds) {
         this.ruleDao = ruleDao;
+        this.ruleEventDailyStatsDao = ruleEventDailyStatsDao;
+        this.batchGetMaxIds = batchGetMaxIds;
     }
 
     @Transactional
@@ -34,6 +49,16 @@ public class RuleService {
         return ruleDao.getOne(id);
     }
 
+    public BatchGetRulesDto getBatch(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new RuntimeException("ids ne peut pas être vide");
+        }
+        if (ids.size() > batchGetMaxIds) {
+            throw new RuntimeException("ids ne peut pas dépasser " + batchGetMaxIds + " éléments");
+        }
+        return ruleDao.getBatch(ids);
+    }
+
     @Transactional
     public RuleResponse mostBroken(String userId) {
         if (userId == null || userId.isEmpty()) {
@@ -51,11 +76,27 @@ public class RuleService {
     }
 
     @Transactional
-    public StatsRespectedDto statsRespected(String userId) {
+    public RuleRankingDto ranking(String userId) {
         if (userId == null || userId.isEmpty()) {
             throw new RuntimeException("userId ne peut pas être vide");
         }
-        return ruleDao.statsRespected(userId);
+        return ruleDao.ranking(userId);
+    }
+
+    @Transactional
+    public StatsRespectedDto statsRespected(StatsRespectedRequestDto request) {
+        if (request.getUserId() == null || request.getUserId().isEmpty()) {
+            throw new RuntimeException("userId ne peut pas être vide");
+        }
+        return ruleDao.statsRespected(request);
+    }
+
+    @Transactional
+    public StatsRollupDto statsRollup(StatsRollupRequestDto request) {
+        if (request.getUserId() == null || request.getUserId().isEmpty()) {
+            throw new RuntimeException("userId ne peut pas être vide");
+        }
+        return ruleEventDailyStatsDao.rollup(request);
     }
 
     @Transactional
@@ -30,6 +30,7 @@ public class UserService {
                     dto.setId(user.getId());
                     dto.setEmail(user.getEmail());
                     dto.setUsername(user.getUsername());
+                    dto.setVersion(user.getVersion());
                     return dto;
                 });
     }
@@ -42,6 +43,7 @@ public class UserService {
                     dto.setId(user.getId());
                     dto.setEmail(user.getEmail());
                     dto.setUsername(user.getUsername());
+                    dto.setVersion(user.getVersion());
                     return dto;
                 });
     }
@@ -0,0 +1,6 @@
+package com.RulesILiveBy.types;
+
+public enum ExportFormatEnum {
+    NDJSON,
+    CSV
+}
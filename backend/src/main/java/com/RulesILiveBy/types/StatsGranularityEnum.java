@@ -0,0 +1,7 @@
+package com.RulesILiveBy.types;
+
+public enum StatsGranularityEnum {
+    DAY,
+    WEEK,
+    MONTH
+}
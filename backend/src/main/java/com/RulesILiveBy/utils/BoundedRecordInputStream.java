@@ -0,0 +1,52 @@
+package com.RulesILiveBy.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+// Borne les octets lus pour un même enregistrement : au-delà, la lecture échoue au lieu de tout mettre en mémoire
+public class BoundedRecordInputStream extends FilterInputStream {
+    private final long maxRecordBytes;
+    private long recordBytes;
+    private boolean exceeded;
+
+    public BoundedRecordInputStream(InputStream input, long maxRecordBytes) {
+        super(input);
+        this.maxRecordBytes = maxRecordBytes;
+    }
+
+    // À appeler après chaque enregistrement lu
+    public void nextRecord() {
+        recordBytes = 0;
+    }
+
+    public boolean isExceeded() {
+        return exceeded;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    private void count(int read) throws IOException {
+        recordBytes += read;
+        if (recordBytes > maxRecordBytes) {
+            exceeded = true;
+            throw new IOException("Enregistrement de plus de " + maxRecordBytes + " octets");
+        }
+    }
+}
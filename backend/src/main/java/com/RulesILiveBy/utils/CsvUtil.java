@@ -0,0 +1,27 @@
+package com.RulesILiveBy.utils;
+
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.dataformat.csv.CsvMapper;
+import tools.jackson.dataformat.csv.CsvReadFeature;
+import tools.jackson.dataformat.csv.CsvSchema;
+
+// CsvMapper partagé par l'export et l'import : mêmes règles de guillemets et d'échappement dans les deux sens.
+// Volontairement hors du contexte Spring : un second ObjectMapper en bean rendrait ambiguës les injections.
+public final class CsvUtil {
+    private static final CsvMapper MAPPER = CsvMapper.builder()
+            .enable(CsvReadFeature.EMPTY_STRING_AS_NULL)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private CsvUtil() {
+    }
+
+    public static CsvMapper mapper() {
+        return MAPPER;
+    }
+
+    // Colonnes dans l'ordre de @JsonPropertyOrder du type, avec ligne d'en-tête
+    public static CsvSchema schemaFor(Class<?> type) {
+        return MAPPER.schemaFor(type).withHeader();
+    }
+}
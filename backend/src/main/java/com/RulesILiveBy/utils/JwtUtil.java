@@ -1,101 +1,173 @@
 package com.RulesILiveBy.utils;
 
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
 
 import javax.crypto.SecretKey;
 
 import org.springframework.stereotype.Component;
 
 import com.RulesILiveBy.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
 import io.github.cdimascio.dotenv.Dotenv;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 
 @Component
 public class JwtUtil {
+    public static final long ACCESS_TOKEN_VALIDITY_MS = 1800000;
+    public static final long REFRESH_TOKEN_VALIDITY_MS = 604800000;
+
+    private static final long VERIFIED_CACHE_SIZE = 10_000;
+    private static final long REJECTED_CACHE_SIZE = 10_000;
+    private static final Duration REJECTED_CACHE_TTL = Duration.ofMinutes(1);
+
     private final Dotenv dotenv = Dotenv.load();
     private final SecretKey key;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedToken> verifiedTokens;
+    private final Cache<String, String> rejectedTokens;
 
     public JwtUtil() {
         this.key = Keys.hmacShaKeyFor(dotenv.get("SECRET_KEY").getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(VERIFIED_CACHE_SIZE)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String tokenHash, VerifiedToken token, long currentTime) {
+                        return remainingNanos(token);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenHash, VerifiedToken token, long currentTime,
+                            long currentDuration) {
+                        return remainingNanos(token);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenHash, VerifiedToken token, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.rejectedTokens = Caffeine.newBuilder()
+                .maximumSize(REJECTED_CACHE_SIZE)
+                .expireAfterWrite(REJECTED_CACHE_TTL)
+                .build();
     }
 
     public String generateJwtToken(User user) {
+        return generateJwtToken(user.getId());
+    }
+
+    public String generateJwtToken(String userId) {
         return Jwts.builder()
-                .subject(user.getId())
+                .subject(userId)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + 1800000))
+                .expiration(new Date(System.currentTimeMillis() + ACCESS_TOKEN_VALIDITY_MS))
                 .signWith(key)
                 .compact();
     }
 
     public String generateRefreshToken(User user) {
+        return generateRefreshToken(user.getId());
+    }
+
+    public String generateRefreshToken(String userId) {
         return Jwts.builder()
-                .subject(user.getId())
+                .id(UUID.randomUUID().toString())
+                .subject(userId)
                 .issuedAt(new Date())
-                .expiration(new Date(System.currentTimeMillis() + 604800000))
+                .expiration(new Date(System.currentTimeMillis() + REFRESH_TOKEN_VALIDITY_MS))
                 .signWith(key)
                 .compact();
     }
 
-    public String getUserIdFromToken(String token) {
+    // Vérifie la signature une seule fois par token, puis sert le résultat depuis le cache jusqu'à expiration
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new RuntimeException("Token vide");
+        }
+
+        String tokenHash = HashUtil.sha256(token);
+
+        VerifiedToken cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null) {
+            if (cached.getExpiresAt().after(new Date())) {
+                return cached;
+            }
+            verifiedTokens.invalidate(tokenHash);
+            throw new RuntimeException("Token expiré");
+        }
+
+        String rejection = rejectedTokens.getIfPresent(tokenHash);
+        if (rejection != null) {
+            throw new RuntimeException(rejection);
+        }
+
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-            return claims.getSubject();
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.getExpiration());
+            verifiedTokens.put(tokenHash, verified);
+            return verified;
         } catch (ExpiredJwtException e) {
-            throw new RuntimeException("Token expiré", e);
+            throw reject(tokenHash, "Token expiré", e);
         } catch (UnsupportedJwtException e) {
-            throw new RuntimeException("Token non supporté", e);
+            throw reject(tokenHash, "Token non supporté", e);
         } catch (MalformedJwtException e) {
-            throw new RuntimeException("Token malformé", e);
+            throw reject(tokenHash, "Token malformé", e);
+        } catch (SignatureException e) {
+            throw reject(tokenHash, "Signature du token invalide", e);
         } catch (IllegalArgumentException e) {
-            throw new RuntimeException("Token vide", e);
+            // Pas de cache négatif hors des rejets définitifs de JJWT : une panne passagère ne doit pas
+            // bloquer un token valide pendant la durée du cache
+            throw new RuntimeException("Token vide ou invalide", e);
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Erreur lors de la validation du Token", e);
         }
     }
 
+    public String getUserIdFromToken(String token) {
+        return verify(token).getUserId();
+    }
+
     public boolean isTokenValid(String token) {
         try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-
-            return !claims.getExpiration().before(new Date());
-        } catch (ExpiredJwtException e) {
-            return false;
-        } catch (Exception e) {
+            verify(token);
+            return true;
+        } catch (RuntimeException e) {
             return false;
         }
     }
 
     public String validateTokenAndGetUserId(String token) {
-        try {
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+        return verify(token).getUserId();
+    }
 
-            return claims.getSubject();
+    private RuntimeException reject(String tokenHash, String message, Exception cause) {
+        rejectedTokens.put(tokenHash, message);
+        return new RuntimeException(message, cause);
+    }
 
-        } catch (UnsupportedJwtException e) {
-            throw new RuntimeException("Token non supporté", e);
-        } catch (MalformedJwtException e) {
-            throw new RuntimeException("Token malformé", e);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException("Token vide ou invalide", e);
-        } catch (Exception e) {
-            throw new RuntimeException("Erreur lors de la validation du Token", e);
+    private static long remainingNanos(VerifiedToken token) {
+        if (token.getExpiresAt() == null) {
+            return 0;
         }
+        long remainingMillis = token.getExpiresAt().getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(0, remainingMillis)).toNanos();
     }
 }
@@ -0,0 +1,13 @@
+package com.RulesILiveBy.utils;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class VerifiedToken {
+    private final String userId;
+    private final Date expiresAt;
+}
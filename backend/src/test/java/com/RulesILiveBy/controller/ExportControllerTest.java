@@ -0,0 +1,154 @@
+package com.RulesILiveBy.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.RulesILiveBy.config.AsyncTimeoutConfig;
+import com.RulesILiveBy.dao.ExportDao;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.service.ExportService;
+import com.RulesILiveBy.types.EventTypeEnum;
+import com.RulesILiveBy.types.RuleStatusEnum;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import tools.jackson.databind.json.JsonMapper;
+
+// Un utilisateur n'exporte que ses propres données ; les refus sont répondus avant toute lecture
+class ExportControllerTest {
+    private static final String OWNER = "user-export-owner";
+    private static final String OTHER = "user-export-other";
+    private static final Duration STREAM_TIMEOUT = Duration.ofMinutes(30);
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+    private static ExportController exportController;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        mongoClient = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "export-controller-test");
+
+        for (String userId : List.of(OWNER, OTHER)) {
+            Rule rule = new Rule();
+            rule.setUserId(userId);
+            rule.setTitle("Règle de " + userId);
+            rule.setStatus(RuleStatusEnum.ACTIVE);
+            rule.setCreatedAt(LocalDateTime.now());
+            rule = mongoTemplate.insert(rule);
+
+            RuleEvent event = new RuleEvent();
+            event.setUserId(userId);
+            event.setRuleId(rule.getId());
+            event.setType(EventTypeEnum.RESPECTED);
+            event.setOccurredAt(LocalDateTime.now());
+            mongoTemplate.insert(event);
+        }
+
+        JsonMapper objectMapper = JsonMapper.builder().build();
+        exportController = new ExportController(new ExportService(new ExportDao(mongoTemplate), objectMapper),
+                objectMapper, STREAM_TIMEOUT);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void ownerExportsOnlyTheirOwnData() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        ResponseEntity<StreamingResponseBody> rules =
+                exportController.exportRules(OWNER, "ndjson", authenticated(OWNER), request);
+
+        assertThat(rules.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(request.getAttribute(AsyncTimeoutConfig.ASYNC_TIMEOUT)).isEqualTo(STREAM_TIMEOUT);
+        assertThat(body(rules)).contains("Règle de " + OWNER).doesNotContain(OTHER);
+
+        ResponseEntity<StreamingResponseBody> events =
+                exportController.exportRuleEvents(OWNER, "csv", authenticated(OWNER), new MockHttpServletRequest());
+
+        assertThat(events.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body(events).lines()).hasSize(2).last().asString()
+                .contains("Règle de " + OWNER).doesNotContain(OTHER);
+    }
+
+    @Test
+    void anotherUsersExportIsForbidden() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        ResponseEntity<StreamingResponseBody> rules =
+                exportController.exportRules(OTHER, "ndjson", authenticated(OWNER), request);
+        ResponseEntity<StreamingResponseBody> events =
+                exportController.exportRuleEvents(OTHER, "ndjson", authenticated(OWNER), request);
+
+        assertThat(rules.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(events.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(body(rules)).contains("You can only export your own data").doesNotContain("Règle");
+        assertThat(request.getAttribute(AsyncTimeoutConfig.ASYNC_TIMEOUT)).isNull();
+    }
+
+    @Test
+    void missingOrUnverifiedAuthenticationIsRejected() throws Exception {
+        ResponseEntity<StreamingResponseBody> anonymous =
+                exportController.exportRules(OWNER, "ndjson", null, new MockHttpServletRequest());
+        // Sans autorités, le constructeur à deux arguments laisse l'authentification non validée
+        ResponseEntity<StreamingResponseBody> unverified = exportController.exportRuleEvents(OWNER, "ndjson",
+                new UsernamePasswordAuthenticationToken(OWNER, null), new MockHttpServletRequest());
+
+        assertThat(anonymous.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(unverified.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(body(anonymous)).contains("Not authenticated");
+    }
+
+    @Test
+    void accessIsCheckedBeforeTheFormat() throws Exception {
+        ResponseEntity<StreamingResponseBody> foreign =
+                exportController.exportRules(OTHER, "xml", authenticated(OWNER), new MockHttpServletRequest());
+        ResponseEntity<StreamingResponseBody> own =
+                exportController.exportRules(OWNER, "xml", authenticated(OWNER), new MockHttpServletRequest());
+
+        assertThat(foreign.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(own.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(body(own)).contains("Format d'export non supporté : xml");
+    }
+
+    // Même forme que l'authentification posée par JwtAuthenticationFilter : l'id utilisateur en principal
+    private static Authentication authenticated(String userId) {
+        return new UsernamePasswordAuthenticationToken(userId, null, List.of());
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+        return output.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,329 @@
+package com.RulesILiveBy.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import com.RulesILiveBy.common.RowMetrics;
+import com.RulesILiveBy.config.IndexBuilder;
+import com.RulesILiveBy.config.MongoCommandProfiler;
+import com.RulesILiveBy.dto.RuleEvent.ListRuleEventRequest;
+import com.RulesILiveBy.dto.RuleEvent.ListRuleEventsDto;
+import com.RulesILiveBy.dto.rules.ListRequestDto;
+import com.RulesILiveBy.dto.rules.ListRulesResponse;
+import com.RulesILiveBy.dto.rules.StatsRespectedRequestDto;
+import com.RulesILiveBy.dto.rules.StatsRollupRequestDto;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.migration.V004__CreateRuleEventDailyStats;
+import com.RulesILiveBy.repository.RuleEventRepository;
+import com.RulesILiveBy.repository.RuleRepository;
+import com.RulesILiveBy.types.EventTypeEnum;
+import com.RulesILiveBy.types.RuleStatusEnum;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Plans d'exécution des listes et des statistiques : chaque commande émise par le DAO est rejouée avec explain
+// et doit passer par l'index attendu, sans COLLSCAN ni tri en mémoire des documents
+class QueryPlanTest {
+    private static final String USER_ID = "user-plan-0";
+    private static final int USERS = 3;
+    private static final int RULES_PER_USER = 40;
+    private static final int EVENTS_PER_USER = 1500;
+
+    private static final CommandCapture capture = new CommandCapture();
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+    private static RuleDao ruleDao;
+    private static RuleEventDao ruleEventDao;
+    private static RuleEventDailyStatsDao ruleEventDailyStatsDao;
+    private static String ruleId;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(
+                        "mongodb://" + address.getHost() + ":" + address.getPort()))
+                .addCommandListener(capture)
+                .build());
+        mongoTemplate = new MongoTemplate(mongoClient, "query-plan-test");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RowMetrics rowMetrics = new RowMetrics(meterRegistry);
+        MongoRepositoryFactory repositoryFactory = new MongoRepositoryFactory(mongoTemplate);
+        ruleDao = new RuleDao(repositoryFactory.getRepository(RuleRepository.class), mongoTemplate, meterRegistry,
+                rowMetrics, 100, Duration.ofMinutes(10), 100);
+        ruleEventDailyStatsDao = new RuleEventDailyStatsDao(mongoTemplate);
+        ruleEventDao = new RuleEventDao(repositoryFactory.getRepository(RuleEventRepository.class), ruleDao,
+                ruleEventDailyStatsDao, mongoTemplate, rowMetrics, 100);
+
+        new V004__CreateRuleEventDailyStats().execution(mongoTemplate);
+        new IndexBuilder(mongoTemplate).buildIndexes();
+        seed();
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void rulesListUsesCreatedAtIndex() {
+        ListRequestDto request = rulesRequest();
+        assertPlans(() -> ruleDao.list(request), "rules_userId_createdAt", "rules_userId_");
+
+        request.setSort("createdAt,desc");
+        assertPlans(() -> ruleDao.list(request), "rules_userId_createdAt", "rules_userId_");
+    }
+
+    @Test
+    void rulesListByStatusUsesStatusIndex() {
+        ListRequestDto request = rulesRequest();
+        request.setStatus(Optional.of(RuleStatusEnum.ACTIVE));
+        assertPlans(() -> ruleDao.list(request), "rules_userId_status_createdAt", "rules_userId_status_createdAt");
+    }
+
+    @Test
+    void rulesListSinceDateUsesCreatedAtIndex() {
+        ListRequestDto request = rulesRequest();
+        request.setFromDate(Optional.of(LocalDateTime.now().minusDays(60)));
+        assertPlans(() -> ruleDao.list(request), "rules_userId_createdAt", "rules_userId_createdAt");
+    }
+
+    @Test
+    void rulesListSortedByCounterUsesCounterIndex() {
+        for (String sort : List.of("brokenCount,desc", "brokenCount,asc")) {
+            ListRequestDto request = rulesRequest();
+            request.setSort(sort);
+            assertPlans(() -> ruleDao.list(request), "rules_userId_brokenCount", "rules_userId_");
+        }
+
+        ListRequestDto request = rulesRequest();
+        request.setSort("respectedCount,desc");
+        assertPlans(() -> ruleDao.list(request), "rules_userId_respectedCount", "rules_userId_");
+    }
+
+    @Test
+    void rulesCursorUsesCreatedAtIndex() {
+        ListRequestDto request = rulesRequest();
+        ListRulesResponse firstPage = ruleDao.list(request);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+
+        request.setAfter(firstPage.getNextCursor());
+        assertPlans(() -> ruleDao.list(request), "rules_userId_createdAt");
+    }
+
+    @Test
+    void eventsListUsesOccurredAtIndex() {
+        ListRuleEventRequest request = eventsRequest();
+        assertPlans(() -> ruleEventDao.list(request), "ruleEvents_userId_occurredAt", "ruleEvents_userId_");
+
+        request.setSort("occurredAt,desc");
+        assertPlans(() -> ruleEventDao.list(request), "ruleEvents_userId_occurredAt", "ruleEvents_userId_");
+    }
+
+    @Test
+    void eventsListByTypeUsesTypeIndex() {
+        ListRuleEventRequest request = eventsRequest();
+        request.setType(EventTypeEnum.BROKEN);
+        assertPlans(() -> ruleEventDao.list(request),
+                "ruleEvents_userId_type_occurredAt", "ruleEvents_userId_type_occurredAt");
+    }
+
+    @Test
+    void eventsListUntilDateUsesOccurredAtIndex() {
+        ListRuleEventRequest request = eventsRequest();
+        request.setToDate(Optional.of(LocalDateTime.now().minusDays(7)));
+        assertPlans(() -> ruleEventDao.list(request),
+                "ruleEvents_userId_occurredAt", "ruleEvents_userId_occurredAt");
+    }
+
+    @Test
+    void eventsCursorUsesOccurredAtIndex() {
+        ListRuleEventRequest request = eventsRequest();
+        ListRuleEventsDto firstPage = ruleEventDao.list(request);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+
+        request.setAfter(firstPage.getNextCursor());
+        assertPlans(() -> ruleEventDao.list(request), "ruleEvents_userId_occurredAt");
+    }
+
+    @Test
+    void statsRespectedWithoutPeriodReadsRuleCounters() {
+        StatsRespectedRequestDto request = new StatsRespectedRequestDto();
+        request.setUserId(USER_ID);
+        assertPlans(() -> ruleDao.statsRespected(request), "rules_userId_");
+    }
+
+    @Test
+    void statsRespectedOverPeriodUsesEventIndexes() {
+        StatsRespectedRequestDto request = new StatsRespectedRequestDto();
+        request.setUserId(USER_ID);
+        request.setFromDate(Optional.of(LocalDateTime.now().minusDays(90)));
+        request.setToDate(Optional.of(LocalDateTime.now()));
+        assertPlans(() -> ruleDao.statsRespected(request),
+                "ruleEvents_userId_occurredAt", "ruleEvents_userId_type_occurredAt");
+    }
+
+    @Test
+    void rollupUsesDailyStatsIndexes() {
+        StatsRollupRequestDto request = new StatsRollupRequestDto();
+        request.setUserId(USER_ID);
+        assertPlans(() -> ruleEventDailyStatsDao.rollup(request), "ruleEventDailyStats_userId_");
+
+        request.setFromDate(Optional.of(LocalDateTime.now().minusDays(30)));
+        request.setToDate(Optional.of(LocalDateTime.now()));
+        assertPlans(() -> ruleEventDailyStatsDao.rollup(request), "ruleEventDailyStats_userId_day");
+
+        StatsRollupRequestDto ruleRequest = new StatsRollupRequestDto();
+        ruleRequest.setUserId(USER_ID);
+        ruleRequest.setRuleId(ruleId);
+        assertPlans(() -> ruleEventDailyStatsDao.rollup(ruleRequest), "ruleEventDailyStats_userId_ruleId_day");
+    }
+
+    // Une commande par index attendu, dans l'ordre d'émission ; un nom terminé par _ accepte tout index
+    // de ce préfixe (un count sur userId seul peut légitimement prendre n'importe lequel)
+    private static void assertPlans(Runnable action, String... expectedIndexes) {
+        List<BsonDocument> commands = capture.during(action);
+        assertThat(commands).as("commandes émises").hasSize(expectedIndexes.length);
+
+        for (int i = 0; i < commands.size(); i++) {
+            BsonDocument command = commands.get(i);
+            String expected = expectedIndexes[i];
+            Document explain = mongoTemplate.getDb().runCommand(
+                    new BsonDocument("explain", MongoCommandProfiler.withoutSessionFields(command))
+                            .append("verbosity", new BsonString("queryPlanner")));
+
+            List<String> stages = new ArrayList<>(MongoCommandProfiler.winningPlanStages(explain));
+            Set<String> indexes = MongoCommandProfiler.winningPlanIndexes(explain);
+            String description = command.toJson() + " -> " + stages + " " + indexes;
+
+            assertThat(stages).as(description).doesNotContain("COLLSCAN");
+            // Les étapes sont listées de la racine vers les feuilles : un tri au-dessus d'un GROUP range
+            // les périodes du rollup, seul un tri sous le GROUP (ou sans GROUP) porte sur les documents
+            int sort = stages.indexOf("SORT");
+            int group = stages.indexOf("GROUP");
+            assertThat(sort < 0 || (group >= 0 && sort < group)).as(description + " : tri en mémoire").isTrue();
+            assertThat(indexes).as(description).isNotEmpty().allMatch(index -> expected.endsWith("_")
+                    ? index.startsWith(expected)
+                    : index.equals(expected));
+        }
+    }
+
+    private static ListRequestDto rulesRequest() {
+        ListRequestDto request = new ListRequestDto();
+        request.setUserId(USER_ID);
+        request.setSize(10);
+        return request;
+    }
+
+    // Sans l'attribut rule : la jointure sur les règles (par _id) n'est pas l'objet de ces tests
+    private static ListRuleEventRequest eventsRequest() {
+        ListRuleEventRequest request = new ListRuleEventRequest();
+        request.setUserId(USER_ID);
+        request.setSize(20);
+        request.setFields("id,type,occuredAt");
+        return request;
+    }
+
+    // Plusieurs utilisateurs, des règles des deux statuts et des événements étalés sur six mois :
+    // assez de documents pour que le planificateur départage les index candidats
+    private static void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> userIds = new ArrayList<>();
+
+        for (int u = 0; u < USERS; u++) {
+            String userId = "user-plan-" + u;
+            userIds.add(userId);
+
+            List<Rule> rules = new ArrayList<>();
+            for (int r = 0; r < RULES_PER_USER; r++) {
+                Rule rule = new Rule();
+                rule.setUserId(userId);
+                rule.setTitle("Règle " + r);
+                rule.setStatus(r % 4 == 0 ? RuleStatusEnum.ARCHIVED : RuleStatusEnum.ACTIVE);
+                rule.setCreatedAt(now.minusDays(200 - r * 5L));
+                rule.setRespectedCount((r * 7) % 23);
+                rule.setBrokenCount((r * 11) % 17);
+                rules.add(rule);
+            }
+            List<Rule> inserted = new ArrayList<>(mongoTemplate.insert(rules, Rule.class));
+            if (USER_ID.equals(userId)) {
+                ruleId = inserted.get(0).getId();
+            }
+
+            List<RuleEvent> events = new ArrayList<>();
+            for (int e = 0; e < EVENTS_PER_USER; e++) {
+                RuleEvent event = new RuleEvent();
+                event.setUserId(userId);
+                event.setRuleId(inserted.get(e % inserted.size()).getId());
+                event.setType(e % 3 == 0 ? EventTypeEnum.BROKEN : EventTypeEnum.RESPECTED);
+                event.setOccurredAt(now.minusMinutes(e * 173L));
+                events.add(event);
+            }
+            mongoTemplate.insert(events, RuleEvent.class);
+        }
+
+        ruleEventDailyStatsDao.rebuildUsers(userIds);
+    }
+
+    // Garde les commandes émises pendant l'action, pour les rejouer avec explain
+    private static class CommandCapture implements CommandListener {
+        private static final Set<String> EXPLAINABLE_COMMANDS = Set.of("find", "aggregate", "count", "distinct");
+
+        private volatile List<BsonDocument> commands;
+
+        List<BsonDocument> during(Runnable action) {
+            commands = new CopyOnWriteArrayList<>();
+            try {
+                action.run();
+                return new ArrayList<>(commands);
+            } finally {
+                commands = null;
+            }
+        }
+
+        @Override
+        public void commandStarted(CommandStartedEvent event) {
+            List<BsonDocument> current = commands;
+            if (current != null && EXPLAINABLE_COMMANDS.contains(event.getCommandName())) {
+                current.add(event.getCommand().clone());
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.RulesILiveBy.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.RulesILiveBy.entity.RefreshToken;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+// Rotation des refresh tokens : un token ne sert qu'une fois, même sous des rotations concurrentes
+class RefreshTokenDaoTest {
+    private static final int CONCURRENT_ROTATIONS = 8;
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+    private static RefreshTokenDao refreshTokenDao;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        mongoClient = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(mongoClient, "refresh-token-dao-test");
+        refreshTokenDao = new RefreshTokenDao(mongoTemplate);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void rotatedTokenCannotBeReused() {
+        String userId = "user-rotate";
+        refreshTokenDao.store(userId, "token-1", LocalDateTime.now().plusDays(1));
+
+        LocalDateTime newExpiresAt = LocalDateTime.now().plusDays(7).withNano(0);
+        Optional<RefreshToken> rotated = refreshTokenDao.rotate(userId, "token-1", "token-2", newExpiresAt);
+
+        assertThat(rotated).hasValueSatisfying(token -> {
+            assertThat(token.getUserId()).isEqualTo(userId);
+            assertThat(token.getExpiresAt()).isEqualTo(newExpiresAt);
+        });
+        assertThat(refreshTokenDao.rotate(userId, "token-1", "token-3", newExpiresAt)).isEmpty();
+
+        // Le nouveau token prend le relais, une seule fois lui aussi
+        assertThat(refreshTokenDao.rotate(userId, "token-2", "token-3", newExpiresAt)).isPresent();
+        assertThat(refreshTokenDao.rotate(userId, "token-2", "token-4", newExpiresAt)).isEmpty();
+        assertThat(tokenCount(userId)).isEqualTo(1);
+    }
+
+    @Test
+    void expiredOrForeignTokenIsRefused() {
+        refreshTokenDao.store("user-expired", "token-expired", LocalDateTime.now().minusMinutes(1));
+        refreshTokenDao.store("user-owner", "token-owned", LocalDateTime.now().plusDays(1));
+
+        LocalDateTime newExpiresAt = LocalDateTime.now().plusDays(7);
+        assertThat(refreshTokenDao.rotate("user-expired", "token-expired", "token-x", newExpiresAt)).isEmpty();
+        assertThat(refreshTokenDao.rotate("user-thief", "token-owned", "token-y", newExpiresAt)).isEmpty();
+
+        // Le refus laisse le token du propriétaire utilisable
+        assertThat(refreshTokenDao.rotate("user-owner", "token-owned", "token-z", newExpiresAt)).isPresent();
+    }
+
+    @Test
+    void concurrentRotationsHaveASingleWinner() throws Exception {
+        String userId = "user-race";
+        refreshTokenDao.store(userId, "token-race", LocalDateTime.now().plusDays(1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_ROTATIONS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<RefreshToken>>> rotations = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_ROTATIONS; i++) {
+                String newToken = "token-race-" + i;
+                rotations.add(executor.submit(() -> {
+                    start.await();
+                    return refreshTokenDao.rotate(userId, "token-race", newToken, LocalDateTime.now().plusDays(7));
+                }));
+            }
+            start.countDown();
+
+            int winners = 0;
+            for (Future<Optional<RefreshToken>> rotation : rotations) {
+                if (rotation.get(1, TimeUnit.MINUTES).isPresent()) {
+                    winners++;
+                }
+            }
+            assertThat(winners).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void deletedTokenCannotBeRotated() {
+        String userId = "user-logout";
+        refreshTokenDao.store(userId, "token-logout", LocalDateTime.now().plusDays(1));
+
+        refreshTokenDao.delete("token-logout");
+
+        assertThat(tokenCount(userId)).isZero();
+        assertThat(refreshTokenDao.rotate(userId, "token-logout", "token-after", LocalDateTime.now().plusDays(7)))
+                .isEmpty();
+    }
+
+    private long tokenCount(String userId) {
+        return mongoTemplate.count(new Query(Criteria.where("userId").is(userId)), RefreshToken.class);
+    }
+}
@@ -0,0 +1,172 @@
+package com.RulesILiveBy.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import com.RulesILiveBy.common.RowMetrics;
+import com.RulesILiveBy.dto.rules.BatchGetRulesDto;
+import com.RulesILiveBy.dto.rules.ListRequestDto;
+import com.RulesILiveBy.dto.rules.ListRulesResponse;
+import com.RulesILiveBy.dto.rules.RuleBatchItemDto;
+import com.RulesILiveBy.dto.rules.RuleResponse;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.repository.RuleRepository;
+import com.RulesILiveBy.types.RuleStatusEnum;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Lectures de RuleDao : taille de page bornée, curseurs sur des dates nulles, multi-get partiel
+class RuleDaoReadTest {
+    private static final int MAX_PAGE_SIZE = 20;
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+    private static RuleDao ruleDao;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        mongoClient = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(mongoClient, "rule-dao-read-test");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RuleRepository ruleRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(RuleRepository.class);
+        ruleDao = new RuleDao(ruleRepository, mongoTemplate, meterRegistry, new RowMetrics(meterRegistry),
+                100, Duration.ofMinutes(10), MAX_PAGE_SIZE);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void pageSizeIsCappedAtMaxSize() {
+        String userId = "user-page-cap";
+        insertRules(userId, 50, 0);
+
+        ListRequestDto request = new ListRequestDto();
+        request.setUserId(userId);
+        request.setSize(500);
+        ListRulesResponse firstPage = ruleDao.list(request);
+
+        assertThat(firstPage.getSize()).isEqualTo(MAX_PAGE_SIZE);
+        assertThat(firstPage.getRules()).hasSize(MAX_PAGE_SIZE);
+        assertThat(firstPage.getTotalElements()).isEqualTo(50);
+        assertThat(firstPage.getNextCursor()).isNotNull();
+
+        request.setAfter(firstPage.getNextCursor());
+        ListRulesResponse cursorPage = ruleDao.list(request);
+        assertThat(cursorPage.getSize()).isEqualTo(MAX_PAGE_SIZE);
+        assertThat(cursorPage.getRules()).hasSize(MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void cursorWalksAscendingThroughNullDates() {
+        String userId = "user-null-dates-asc";
+        List<Rule> rules = insertRules(userId, 17, 6);
+
+        // Mongo classe les dates nulles en premier ; à date égale, l'id départage
+        List<String> expected = rules.stream()
+                .sorted(Comparator.comparing(Rule::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Rule::getId))
+                .map(Rule::getId)
+                .collect(Collectors.toList());
+
+        assertThat(walk(userId, "createdAt,asc", 4)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void cursorWalksDescendingThroughNullDates() {
+        String userId = "user-null-dates-desc";
+        List<Rule> rules = insertRules(userId, 17, 6);
+
+        List<String> expected = rules.stream()
+                .sorted(Comparator.comparing(Rule::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(Rule::getId)
+                        .reversed())
+                .map(Rule::getId)
+                .collect(Collectors.toList());
+
+        assertThat(walk(userId, "createdAt,desc", 4)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void batchGetReportsMissingIdsInRequestOrder() {
+        List<Rule> rules = insertRules("user-batch-get", 3, 0);
+        String missing = new ObjectId().toHexString();
+        List<String> ids = List.of(rules.get(1).getId(), missing, rules.get(0).getId(), rules.get(1).getId());
+
+        BatchGetRulesDto response = ruleDao.getBatch(ids);
+
+        assertThat(response.getFound()).isEqualTo(3);
+        assertThat(response.getMissing()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(RuleBatchItemDto::getId).containsExactlyElementsOf(ids);
+        assertThat(response.getResults()).extracting(RuleBatchItemDto::isFound)
+                .containsExactly(true, false, true, true);
+        assertThat(response.getResults().get(1).getRule()).isNull();
+        assertThat(response.getResults().get(0).getRule()).extracting(RuleResponse::getTitle)
+                .isEqualTo(rules.get(1).getTitle());
+    }
+
+    // Parcourt toutes les pages par curseur, à partir de la première page par offset
+    private List<String> walk(String userId, String sort, int size) {
+        ListRequestDto request = new ListRequestDto();
+        request.setUserId(userId);
+        request.setSort(sort);
+        request.setSize(size);
+
+        List<String> ids = new ArrayList<>();
+        ListRulesResponse page = ruleDao.list(request);
+        page.getRules().forEach(rule -> ids.add(rule.getId()));
+        for (int pages = 1; page.getNextCursor() != null; pages++) {
+            assertThat(pages).as("nombre de pages").isLessThan(100);
+            request.setAfter(page.getNextCursor());
+            page = ruleDao.list(request);
+            page.getRules().forEach(rule -> ids.add(rule.getId()));
+        }
+        return ids;
+    }
+
+    // Les dates se répètent par trois pour que l'id départage ; les premières règles n'ont pas de date
+    private List<Rule> insertRules(String userId, int dated, int undated) {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 1, 12, 0);
+        List<Rule> rules = new ArrayList<>();
+        for (int i = 0; i < dated + undated; i++) {
+            Rule rule = new Rule();
+            rule.setUserId(userId);
+            rule.setTitle("Règle " + i);
+            rule.setStatus(RuleStatusEnum.ACTIVE);
+            rule.setCreatedAt(i < undated ? null : base.plusDays((i - undated) / 3));
+            rules.add(rule);
+        }
+        return new ArrayList<>(mongoTemplate.insert(rules, Rule.class));
+    }
+}
@@ -0,0 +1,116 @@
+package com.RulesILiveBy.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import com.RulesILiveBy.common.RowMetrics;
+import com.RulesILiveBy.dto.rules.CreateRuleRequestDto;
+import com.RulesILiveBy.dto.rules.EditRuleRequestDto;
+import com.RulesILiveBy.dto.rules.RuleResponse;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.repository.RuleRepository;
+import com.RulesILiveBy.types.EventTypeEnum;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Les compteurs d'événements ne doivent pas toucher à la version utilisée pour le verrouillage optimiste
+class RuleDaoVersionTest {
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+    private static RuleDao ruleDao;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        mongoClient = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(mongoClient, "rule-dao-version-test");
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RuleRepository ruleRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(RuleRepository.class);
+        ruleDao = new RuleDao(ruleRepository, mongoTemplate, meterRegistry, new RowMetrics(meterRegistry),
+                100, Duration.ofMinutes(10), 100);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void recordEventLeavesVersionUnchanged() {
+        RuleResponse created = createRule();
+
+        ruleDao.recordEvent(created.getId(), EventTypeEnum.BROKEN, LocalDateTime.now());
+        ruleDao.moveEvent(created.getId(), EventTypeEnum.BROKEN, EventTypeEnum.RESPECTED);
+
+        Rule stored = mongoTemplate.findById(created.getId(), Rule.class);
+        assertThat(stored.getVersion()).isEqualTo(created.getVersion());
+        assertThat(stored.getRespectedCount()).isEqualTo(1);
+        assertThat(stored.getBrokenCount()).isZero();
+        assertThat(stored.getLastEventAt()).isNotNull();
+    }
+
+    @Test
+    void recordEventsLeavesVersionUnchanged() {
+        RuleResponse created = createRule();
+
+        RuleEvent event = new RuleEvent();
+        event.setRuleId(created.getId());
+        event.setType(EventTypeEnum.RESPECTED);
+        event.setOccurredAt(LocalDateTime.now());
+        ruleDao.recordEvents(List.of(event, event));
+
+        Rule stored = mongoTemplate.findById(created.getId(), Rule.class);
+        assertThat(stored.getVersion()).isEqualTo(created.getVersion());
+        assertThat(stored.getRespectedCount()).isEqualTo(2);
+    }
+
+    @Test
+    void versionedUpdateSucceedsAfterRecordEvent() {
+        RuleResponse created = createRule();
+
+        ruleDao.recordEvent(created.getId(), EventTypeEnum.RESPECTED, LocalDateTime.now());
+
+        EditRuleRequestDto edit = new EditRuleRequestDto();
+        edit.setTitle(Optional.of("Nouveau titre"));
+        edit.setVersion(created.getVersion());
+        RuleResponse updated = ruleDao.update(created.getId(), edit);
+
+        assertThat(updated.getTitle()).isEqualTo("Nouveau titre");
+        assertThat(updated.getVersion()).isEqualTo(created.getVersion() + 1);
+        assertThat(updated.getRespectedCount()).isEqualTo(1);
+    }
+
+    private RuleResponse createRule() {
+        CreateRuleRequestDto request = new CreateRuleRequestDto();
+        request.setUserId("user-version-test");
+        request.setTitle("Règle");
+        request.setDescription("Description");
+        return ruleDao.create(request);
+    }
+}
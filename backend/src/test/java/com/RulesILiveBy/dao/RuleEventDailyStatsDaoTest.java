@@ -0,0 +1,131 @@
+package com.RulesILiveBy.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.RulesILiveBy.dto.rules.StatsPeriodDto;
+import com.RulesILiveBy.dto.rules.StatsRollupDto;
+import com.RulesILiveBy.dto.rules.StatsRollupRequestDto;
+import com.RulesILiveBy.entity.RuleEventDailyStats;
+import com.RulesILiveBy.migration.V004__CreateRuleEventDailyStats;
+import com.RulesILiveBy.types.StatsGranularityEnum;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+// Rollup des agrégats journaliers : regroupement par jour, semaine (lundi) ou mois, et bornes [from, to)
+class RuleEventDailyStatsDaoTest {
+    private static final String USER_ID = "user-rollup-test";
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+    private static RuleEventDailyStatsDao ruleEventDailyStatsDao;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        mongoClient = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoClient, "rule-event-daily-stats-dao-test");
+        new V004__CreateRuleEventDailyStats().execution(mongoTemplate);
+        ruleEventDailyStatsDao = new RuleEventDailyStatsDao(mongoTemplate);
+
+        // Lundi 2 mars, mercredi 4 mars, lundi 9 mars, mercredi 1er avril (semaine du lundi 30 mars)
+        mongoTemplate.insert(new RuleEventDailyStats(null, USER_ID, "rule-a", "2026-03-02", 3, 1));
+        mongoTemplate.insert(new RuleEventDailyStats(null, USER_ID, "rule-b", "2026-03-02", 1, 0));
+        mongoTemplate.insert(new RuleEventDailyStats(null, USER_ID, "rule-a", "2026-03-04", 0, 2));
+        mongoTemplate.insert(new RuleEventDailyStats(null, USER_ID, "rule-a", "2026-03-09", 2, 2));
+        mongoTemplate.insert(new RuleEventDailyStats(null, USER_ID, "rule-a", "2026-04-01", 1, 2));
+        mongoTemplate.insert(new RuleEventDailyStats(null, "user-rollup-other", "rule-z", "2026-03-02", 9, 9));
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void dayGranularityKeepsOnePeriodPerDay() {
+        StatsRollupDto rollup = ruleEventDailyStatsDao.rollup(request(StatsGranularityEnum.DAY));
+
+        assertThat(rollup.getPeriods()).extracting(StatsPeriodDto::getPeriod)
+                .containsExactly("2026-03-02", "2026-03-04", "2026-03-09", "2026-04-01");
+        assertThat(rollup.getPeriods().get(0).getRespectedCount()).isEqualTo(4);
+        assertThat(rollup.getPeriods().get(0).getTaux()).isEqualByComparingTo(new BigDecimal("80"));
+        assertThat(rollup.getRespectedCount()).isEqualTo(7);
+        assertThat(rollup.getBrokenCount()).isEqualTo(7);
+        assertThat(rollup.getTaux()).isEqualByComparingTo(new BigDecimal("50"));
+    }
+
+    @Test
+    void weekGranularityGroupsFromMonday() {
+        StatsRollupDto rollup = ruleEventDailyStatsDao.rollup(request(StatsGranularityEnum.WEEK));
+
+        assertThat(rollup.getPeriods()).extracting(StatsPeriodDto::getPeriod)
+                .containsExactly("2026-03-02", "2026-03-09", "2026-03-30");
+        assertThat(rollup.getPeriods().get(0).getRespectedCount()).isEqualTo(4);
+        assertThat(rollup.getPeriods().get(0).getBrokenCount()).isEqualTo(3);
+    }
+
+    @Test
+    void monthGranularityGroupsFromTheFirstDay() {
+        StatsRollupDto rollup = ruleEventDailyStatsDao.rollup(request(StatsGranularityEnum.MONTH));
+
+        assertThat(rollup.getPeriods()).extracting(StatsPeriodDto::getPeriod)
+                .containsExactly("2026-03-01", "2026-04-01");
+        assertThat(rollup.getPeriods().get(0).getRespectedCount()).isEqualTo(6);
+        assertThat(rollup.getPeriods().get(0).getBrokenCount()).isEqualTo(5);
+    }
+
+    @Test
+    void bordersAtMidnightExcludeTheLastDay() {
+        StatsRollupRequestDto request = request(StatsGranularityEnum.DAY);
+        request.setFromDate(Optional.of(LocalDateTime.of(2026, 3, 4, 0, 0)));
+        request.setToDate(Optional.of(LocalDateTime.of(2026, 3, 9, 0, 0)));
+
+        assertThat(ruleEventDailyStatsDao.rollup(request).getPeriods()).extracting(StatsPeriodDto::getPeriod)
+                .containsExactly("2026-03-04");
+
+        // Une borne entamée compte son jour en entier
+        request.setToDate(Optional.of(LocalDateTime.of(2026, 3, 9, 8, 0)));
+        assertThat(ruleEventDailyStatsDao.rollup(request).getPeriods()).extracting(StatsPeriodDto::getPeriod)
+                .containsExactly("2026-03-04", "2026-03-09");
+    }
+
+    @Test
+    void ruleFilterKeepsOnlyThatRule() {
+        StatsRollupRequestDto request = request(StatsGranularityEnum.MONTH);
+        request.setRuleId("rule-b");
+
+        StatsRollupDto rollup = ruleEventDailyStatsDao.rollup(request);
+
+        assertThat(rollup.getPeriods()).extracting(StatsPeriodDto::getPeriod).containsExactly("2026-03-01");
+        assertThat(rollup.getRespectedCount()).isEqualTo(1);
+        assertThat(rollup.getBrokenCount()).isZero();
+    }
+
+    private static StatsRollupRequestDto request(StatsGranularityEnum granularity) {
+        StatsRollupRequestDto request = new StatsRollupRequestDto();
+        request.setUserId(USER_ID);
+        request.setGranularity(granularity);
+        return request;
+    }
+}
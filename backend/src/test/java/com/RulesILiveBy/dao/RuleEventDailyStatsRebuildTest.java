@@ -0,0 +1,172 @@
+package com.RulesILiveBy.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import com.RulesILiveBy.common.RowMetrics;
+import com.RulesILiveBy.dto.RuleEvent.CreateRuleEventRequestDto;
+import com.RulesILiveBy.dto.RuleEvent.RuleEventDto;
+import com.RulesILiveBy.dto.RuleEvent.UpdateRuleEventRequestDto;
+import com.RulesILiveBy.dto.rules.CreateRuleRequestDto;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.entity.RuleEventDailyStats;
+import com.RulesILiveBy.migration.V004__CreateRuleEventDailyStats;
+import com.RulesILiveBy.repository.RuleEventRepository;
+import com.RulesILiveBy.repository.RuleRepository;
+import com.RulesILiveBy.types.EventTypeEnum;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Une reconstruction des agrégats journaliers ne doit ni perdre ni compter deux fois les événements
+// écrits pendant qu'elle tourne
+class RuleEventDailyStatsRebuildTest {
+    private static final String USER_ID = "user-rebuild-test";
+    private static final int WRITERS = 4;
+    private static final int EVENTS_PER_WRITER = 150;
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+    private static RuleDao ruleDao;
+    private static RuleEventDao ruleEventDao;
+    private static RuleEventDailyStatsDao ruleEventDailyStatsDao;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        mongoClient = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(mongoClient, "rule-event-daily-stats-rebuild-test");
+        new V004__CreateRuleEventDailyStats().execution(mongoTemplate);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RowMetrics rowMetrics = new RowMetrics(meterRegistry);
+        MongoRepositoryFactory repositoryFactory = new MongoRepositoryFactory(mongoTemplate);
+        ruleDao = new RuleDao(repositoryFactory.getRepository(RuleRepository.class), mongoTemplate, meterRegistry,
+                rowMetrics, 100, Duration.ofMinutes(10), 100);
+        ruleEventDailyStatsDao = new RuleEventDailyStatsDao(mongoTemplate);
+        ruleEventDao = new RuleEventDao(repositoryFactory.getRepository(RuleEventRepository.class), ruleDao,
+                ruleEventDailyStatsDao, mongoTemplate, rowMetrics, 100);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void rebuildDuringWritesKeepsEveryEvent() throws Exception {
+        List<String> ruleIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CreateRuleRequestDto rule = new CreateRuleRequestDto();
+            rule.setUserId(USER_ID);
+            rule.setTitle("Règle " + i);
+            rule.setDescription("Description");
+            ruleIds.add(ruleDao.create(rule).getId());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger rebuilds = new AtomicInteger();
+        try {
+            // Reconstructions en boucle tant que les écritures continuent
+            Future<?> rebuilder = executor.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    ruleEventDailyStatsDao.rebuildUsers(List.of(USER_ID));
+                    rebuilds.incrementAndGet();
+                }
+                return null;
+            });
+
+            // Créations, et un changement de type sur un événement sur trois
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < EVENTS_PER_WRITER; i++) {
+                        CreateRuleEventRequestDto request = new CreateRuleEventRequestDto();
+                        request.setUserId(USER_ID);
+                        request.setRuleId(ruleIds.get((writer + i) % ruleIds.size()));
+                        request.setType(i % 2 == 0 ? EventTypeEnum.RESPECTED : EventTypeEnum.BROKEN);
+                        RuleEventDto created = ruleEventDao.create(request);
+
+                        if (i % 3 == 0) {
+                            UpdateRuleEventRequestDto update = new UpdateRuleEventRequestDto();
+                            update.setType(Optional.of(created.getType() == EventTypeEnum.RESPECTED
+                                    ? EventTypeEnum.BROKEN
+                                    : EventTypeEnum.RESPECTED));
+                            ruleEventDao.update(created.getId(), update);
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(2, TimeUnit.MINUTES);
+            }
+            writing.set(false);
+            rebuilder.get(2, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(rebuilds.get()).isPositive();
+        assertThat(statsTotal("respectedCount")).isEqualTo(eventCount(EventTypeEnum.RESPECTED));
+        assertThat(statsTotal("brokenCount")).isEqualTo(eventCount(EventTypeEnum.BROKEN));
+        assertThat(eventCount(EventTypeEnum.RESPECTED) + eventCount(EventTypeEnum.BROKEN))
+                .isEqualTo(WRITERS * EVENTS_PER_WRITER);
+    }
+
+    private long eventCount(EventTypeEnum type) {
+        return mongoTemplate.count(
+                new Query(Criteria.where("userId").is(USER_ID).and("type").is(type)), RuleEvent.class);
+    }
+
+    private long statsTotal(String counter) {
+        Document total = mongoTemplate.aggregate(
+                Aggregation.newAggregation(
+                        Aggregation.match(Criteria.where("userId").is(USER_ID)),
+                        Aggregation.group().sum(counter).as("total")),
+                RuleEventDailyStats.class, Document.class)
+                .getUniqueMappedResult();
+        return total != null ? total.get("total", Number.class).longValue() : 0;
+    }
+}
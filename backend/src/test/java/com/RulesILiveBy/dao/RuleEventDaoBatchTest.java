@@ -0,0 +1,156 @@
+package com.RulesILiveBy.dao;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+
+import com.RulesILiveBy.common.RowMetrics;
+import com.RulesILiveBy.dto.RuleEvent.BatchCreateRuleEventsDto;
+import com.RulesILiveBy.dto.RuleEvent.BatchGetRuleEventsDto;
+import com.RulesILiveBy.dto.RuleEvent.BatchItemResultDto;
+import com.RulesILiveBy.dto.RuleEvent.CreateRuleEventRequestDto;
+import com.RulesILiveBy.dto.RuleEvent.RuleEventBatchItemDto;
+import com.RulesILiveBy.dto.RuleEvent.RuleEventDto;
+import com.RulesILiveBy.dto.rules.CreateRuleRequestDto;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.migration.V004__CreateRuleEventDailyStats;
+import com.RulesILiveBy.repository.RuleEventRepository;
+import com.RulesILiveBy.repository.RuleRepository;
+import com.RulesILiveBy.types.EventTypeEnum;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// Lots d'événements : un élément en échec n'empêche pas les autres, et chaque résultat garde sa position
+class RuleEventDaoBatchTest {
+    private static final String USER_ID = "user-batch-test";
+
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+    private static RuleDao ruleDao;
+    private static RuleEventDao ruleEventDao;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        mongoClient = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(mongoClient, "rule-event-dao-batch-test");
+        new V004__CreateRuleEventDailyStats().execution(mongoTemplate);
+
+        // Index propre au test : une note en double fait échouer l'insertion de cet élément dans le bulk
+        mongoTemplate.indexOps(RuleEvent.class).createIndex(new Index()
+                .on("note", Sort.Direction.ASC)
+                .named("ruleEvents_note_unique_test")
+                .unique()
+                .sparse());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RowMetrics rowMetrics = new RowMetrics(meterRegistry);
+        MongoRepositoryFactory repositoryFactory = new MongoRepositoryFactory(mongoTemplate);
+        ruleDao = new RuleDao(repositoryFactory.getRepository(RuleRepository.class), mongoTemplate, meterRegistry,
+                rowMetrics, 100, Duration.ofMinutes(10), 100);
+        ruleEventDao = new RuleEventDao(repositoryFactory.getRepository(RuleEventRepository.class), ruleDao,
+                new RuleEventDailyStatsDao(mongoTemplate), mongoTemplate, rowMetrics, 100);
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void createBatchKeepsValidItemsWhenOthersFail() {
+        String ruleId = createRule();
+
+        List<CreateRuleEventRequestDto> requests = new ArrayList<>();
+        requests.add(event(ruleId, EventTypeEnum.RESPECTED, "note-a"));
+        requests.add(event(ruleId, null, "note-b"));
+        requests.add(event(ruleId, EventTypeEnum.BROKEN, "note-a"));
+        requests.add(event(ruleId, EventTypeEnum.BROKEN, "note-c"));
+
+        BatchCreateRuleEventsDto response = ruleEventDao.createBatch(requests);
+
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BatchItemResultDto::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(response.getResults()).extracting(BatchItemResultDto::isSuccess)
+                .containsExactly(true, false, false, true);
+        assertThat(response.getResults().get(1).getError()).isEqualTo("type ne peut pas être vide");
+        assertThat(response.getResults().get(2).getError()).isNotBlank();
+        assertThat(response.getResults().get(3).getEvent().getNote()).isEqualTo("note-c");
+
+        // Seuls les événements insérés sont comptés sur la règle
+        Rule rule = mongoTemplate.findById(ruleId, Rule.class);
+        assertThat(rule.getRespectedCount()).isEqualTo(1);
+        assertThat(rule.getBrokenCount()).isEqualTo(1);
+        assertThat(mongoTemplate.count(new Query(Criteria.where("ruleId").is(ruleId)), RuleEvent.class))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void getBatchReportsMissingIdsInRequestOrder() {
+        String ruleId = createRule();
+        BatchCreateRuleEventsDto created = ruleEventDao.createBatch(List.of(
+                event(ruleId, EventTypeEnum.RESPECTED, null),
+                event(ruleId, EventTypeEnum.BROKEN, null)));
+        String first = created.getResults().get(0).getEvent().getId();
+        String second = created.getResults().get(1).getEvent().getId();
+        String missing = new ObjectId().toHexString();
+
+        BatchGetRuleEventsDto response = ruleEventDao.getBatch(List.of(second, missing, first));
+
+        assertThat(response.getFound()).isEqualTo(2);
+        assertThat(response.getMissing()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(RuleEventBatchItemDto::getId)
+                .containsExactly(second, missing, first);
+        assertThat(response.getResults()).extracting(RuleEventBatchItemDto::isFound)
+                .containsExactly(true, false, true);
+        RuleEventDto event = response.getResults().get(0).getEvent();
+        assertThat(event.getType()).isEqualTo(EventTypeEnum.BROKEN);
+        assertThat(event.getRule().getId()).isEqualTo(ruleId);
+    }
+
+    private String createRule() {
+        CreateRuleRequestDto request = new CreateRuleRequestDto();
+        request.setUserId(USER_ID);
+        request.setTitle("Règle");
+        request.setDescription("Description");
+        return ruleDao.create(request).getId();
+    }
+
+    private static CreateRuleEventRequestDto event(String ruleId, EventTypeEnum type, String note) {
+        CreateRuleEventRequestDto request = new CreateRuleEventRequestDto();
+        request.setUserId(USER_ID);
+        request.setRuleId(ruleId);
+        request.setType(type);
+        request.setNote(note);
+        return request;
+    }
+}
@@ -0,0 +1,173 @@
+package com.RulesILiveBy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.util.unit.DataSize;
+
+import com.RulesILiveBy.common.RowMetrics;
+import com.RulesILiveBy.dao.ImportDao;
+import com.RulesILiveBy.dao.RuleDao;
+import com.RulesILiveBy.dao.RuleEventDailyStatsDao;
+import com.RulesILiveBy.dto.export.ImportReportDto;
+import com.RulesILiveBy.entity.Rule;
+import com.RulesILiveBy.entity.RuleEvent;
+import com.RulesILiveBy.migration.V004__CreateRuleEventDailyStats;
+import com.RulesILiveBy.repository.RuleRepository;
+import com.RulesILiveBy.types.EventTypeEnum;
+import com.RulesILiveBy.types.ExportFormatEnum;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.commands.ServerAddress;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+// Import : les anciens ids de règles sont remplacés dans les événements, et le rapport d'erreurs reste borné
+class ImportServiceTest {
+    private static TransitionWalker.ReachedState<RunningMongodProcess> mongod;
+    private static MongoClient mongoClient;
+    private static MongoTemplate mongoTemplate;
+    private static ImportService importService;
+
+    @BeforeAll
+    static void startMongo() {
+        mongod = Mongod.instance().start(Version.Main.V6_0);
+        ServerAddress address = mongod.current().getServerAddress();
+        mongoClient = MongoClients.create("mongodb://" + address.getHost() + ":" + address.getPort());
+        mongoTemplate = new MongoTemplate(mongoClient, "import-service-test");
+        new V004__CreateRuleEventDailyStats().execution(mongoTemplate);
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RuleRepository ruleRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(RuleRepository.class);
+        RuleDao ruleDao = new RuleDao(ruleRepository, mongoTemplate, meterRegistry, new RowMetrics(meterRegistry),
+                100, Duration.ofMinutes(10), 100);
+        // Lots de 10 : les remplacements d'ids et les erreurs traversent plusieurs flushs
+        importService = new ImportService(new ImportDao(mongoTemplate), ruleDao,
+                new RuleEventDailyStatsDao(mongoTemplate), JsonMapper.builder().build(), 10, DataSize.ofKilobytes(64));
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (mongoClient != null) {
+            mongoClient.close();
+        }
+        if (mongod != null) {
+            mongod.close();
+        }
+    }
+
+    @Test
+    void eventsPointToTheImportedRules() throws Exception {
+        String userId = "user-import-remap";
+        StringBuilder rules = new StringBuilder();
+        for (int i = 0; i < 15; i++) {
+            rules.append("{\"id\":\"old-").append(i).append("\",\"title\":\"Règle ").append(i).append("\"}\n");
+        }
+        String events = """
+                {"ruleId":"old-3","type":"RESPECTED","note":"première"}
+                {"ruleId":"old-14","type":"BROKEN","note":"seconde"}
+                {"ruleId":"old-99","type":"BROKEN","note":"inconnue"}
+                """;
+
+        ImportReportDto report = importService.importData(userId, ExportFormatEnum.NDJSON,
+                stream(rules.toString()), stream(events));
+
+        assertThat(report.getRulesImported()).isEqualTo(15);
+        assertThat(report.getEventsImported()).isEqualTo(2);
+        assertThat(report.getEventsFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).containsExactly("ruleEvents #3 : règle inconnue : old-99");
+
+        Rule third = mongoTemplate.findOne(
+                new Query(Criteria.where("userId").is(userId).and("title").is("Règle 3")), Rule.class);
+        Rule last = mongoTemplate.findOne(
+                new Query(Criteria.where("userId").is(userId).and("title").is("Règle 14")), Rule.class);
+        RuleEvent first = mongoTemplate.findOne(new Query(Criteria.where("note").is("première")), RuleEvent.class);
+        RuleEvent second = mongoTemplate.findOne(new Query(Criteria.where("note").is("seconde")), RuleEvent.class);
+
+        assertThat(first.getRuleId()).isEqualTo(third.getId()).isNotEqualTo("old-3");
+        assertThat(first.getUserId()).isEqualTo(userId);
+        assertThat(second.getRuleId()).isEqualTo(last.getId());
+        assertThat(second.getType()).isEqualTo(EventTypeEnum.BROKEN);
+
+        // Les compteurs de la règle suivent les événements importés
+        assertThat(mongoTemplate.findById(third.getId(), Rule.class).getRespectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void eventsCannotPointToAnotherUsersRule() throws Exception {
+        Rule foreign = new Rule();
+        foreign.setUserId("user-import-other");
+        foreign.setTitle("Règle d'un autre");
+        foreign = mongoTemplate.insert(foreign);
+
+        ImportReportDto report = importService.importData("user-import-foreign", ExportFormatEnum.NDJSON, null,
+                stream("{\"ruleId\":\"" + foreign.getId() + "\",\"type\":\"RESPECTED\"}\n"));
+
+        assertThat(report.getEventsImported()).isZero();
+        assertThat(report.getEventsFailed()).isEqualTo(1);
+        assertThat(mongoTemplate.count(new Query(Criteria.where("ruleId").is(foreign.getId())), RuleEvent.class))
+                .isZero();
+    }
+
+    @Test
+    void errorReportIsCappedButEveryFailureIsCounted() throws Exception {
+        StringBuilder rules = new StringBuilder();
+        for (int i = 0; i < 250; i++) {
+            rules.append("{\"id\":\"blank-").append(i).append("\",\"title\":\" \"}\n");
+        }
+        rules.append("{\"id\":\"valid\",\"title\":\"Règle valide\"}\n");
+
+        ImportReportDto report = importService.importData("user-import-errors", ExportFormatEnum.NDJSON,
+                stream(rules.toString()), null);
+
+        assertThat(report.getRulesFailed()).isEqualTo(250);
+        assertThat(report.getRulesImported()).isEqualTo(1);
+        assertThat(report.getErrors()).hasSize(100);
+        assertThat(report.getErrors().get(0)).isEqualTo("rules #1 : title ne peut pas être vide");
+    }
+
+    @Test
+    void csvImportUsesTheSameRemapping() throws Exception {
+        String userId = "user-import-csv";
+        String rules = """
+                id,title,description,status,createdAt,updatedAt
+                old-a,Règle CSV,,ACTIVE,,
+                """;
+        String events = """
+                id,ruleId,ruleTitle,type,context,emotion,note,occurredAt
+                ,old-a,Règle CSV,BROKEN,,,csv,2026-03-02T10:15:00
+                """;
+
+        ImportReportDto report = importService.importData(userId, ExportFormatEnum.CSV, stream(rules), stream(events));
+
+        assertThat(report.getErrors()).isEmpty();
+        Rule rule = mongoTemplate.findOne(new Query(Criteria.where("userId").is(userId)), Rule.class);
+        List<RuleEvent> imported = mongoTemplate.find(new Query(Criteria.where("userId").is(userId)), RuleEvent.class);
+        assertThat(imported).singleElement().satisfies(event -> {
+            assertThat(event.getRuleId()).isEqualTo(rule.getId());
+            assertThat(event.getNote()).isEqualTo("csv");
+            assertThat(event.getOccurredAt()).hasToString("2026-03-02T10:15");
+        });
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}